@@ -0,0 +1,16 @@
+package org.example.sampleproblemspringweb.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a read-only user service method whose concurrent calls with equal arguments may share
+ * one execution and its result (or exception), see the coalescing aspect.
+ * Only for methods without side effects whose result is not modified by callers.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Coalesced {
+}
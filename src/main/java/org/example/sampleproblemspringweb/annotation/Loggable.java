@@ -12,6 +12,7 @@ import java.lang.annotation.Target;
  * - Method exit with return value
  * - Execution time
  * - Exceptions
+ * Parameters and return values are truncated to a character budget.
  */
 @Target({ElementType.METHOD, ElementType.TYPE})
 @Retention(RetentionPolicy.RUNTIME)
@@ -36,6 +37,23 @@ public @interface Loggable {
      */
     boolean logExecutionTime() default true;
 
+    /**
+     * Character budget for logged parameters and return value, -1 uses app.logging.aspect.payload.max-chars
+     */
+    int maxPayloadChars() default -1;
+
+    /**
+     * Log 1 in N successful invocations, -1 uses app.logging.aspect.sampling.rate. Exceptions and,
+     * with a slow threshold, calls over it are always logged
+     */
+    int sampleRate() default -1;
+
+    /**
+     * Only log successful invocations at least this slow (entry line is skipped),
+     * 0 logs every call, -1 uses app.logging.aspect.sampling.slow-threshold-millis
+     */
+    long slowThresholdMillis() default -1;
+
     enum LogLevel {
         DEBUG, INFO, WARN, ERROR
     }
@@ -0,0 +1,16 @@
+package org.example.sampleproblemspringweb.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a service method that keeps its transaction and connection open while the client reads
+ * the response, such as a streaming export. The data access limiter gives these calls their own
+ * small pool of permits so a slow reader cannot starve the short calls.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Streaming {
+}
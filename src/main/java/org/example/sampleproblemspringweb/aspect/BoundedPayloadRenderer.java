@@ -0,0 +1,259 @@
+package org.example.sampleproblemspringweb.aspect;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.StreamWriteConstraints;
+import com.fasterxml.jackson.core.StreamWriteFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.sampleproblemspringweb.config.LoggingAspectProperties;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.reflect.Array;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Default {@link PayloadRenderer}: simple values are printed as-is, collections and arrays by size,
+ * everything else as JSON. Output goes into a reused per-thread buffer and stops as soon as the
+ * character budget is spent, so a large payload costs at most the budget (plus one Jackson buffer)
+ * instead of its full serialized size.
+ */
+@Component
+public class BoundedPayloadRenderer implements PayloadRenderer {
+
+    static final String TRUNCATION_MARKER = "…(truncated)";
+
+    private static final int INITIAL_CAPACITY = 256;
+    private static final int MAX_RETAINED_CAPACITY = 16 * 1024;
+
+    private final int defaultMaxChars;
+    private final ObjectMapper objectMapper;
+    private final ThreadLocal<RenderBuffer> buffers = ThreadLocal.withInitial(RenderBuffer::new);
+
+    public BoundedPayloadRenderer(LoggingAspectProperties properties) {
+        LoggingAspectProperties.Payload payload = properties.getPayload();
+        this.defaultMaxChars = payload.getMaxChars();
+        // Jackson checks the depth of the enclosing scope, so one below the limit allows maxDepth levels
+        // The generator is closed after every value; it must neither close the writer nor complete truncated JSON
+        JsonFactory jsonFactory = JsonFactory.builder()
+            .disable(StreamWriteFeature.AUTO_CLOSE_TARGET)
+            .disable(StreamWriteFeature.AUTO_CLOSE_CONTENT)
+            .streamWriteConstraints(StreamWriteConstraints.builder()
+                .maxNestingDepth(Math.max(payload.getMaxDepth() - 1, 0))
+                .build())
+            .build();
+        this.objectMapper = new ObjectMapper(jsonFactory);
+    }
+
+    @Override
+    public String renderArguments(Object[] args, int maxChars) {
+        if (args == null || args.length == 0) {
+            return "[]";
+        }
+        RenderBuffer buffer = acquire(maxChars);
+        try {
+            buffer.text.append('[');
+            for (int i = 0; i < args.length && !buffer.isFull(); i++) {
+                if (i > 0) {
+                    buffer.text.append(", ");
+                }
+                appendValue(buffer, args[i]);
+            }
+            buffer.text.append(']');
+            return buffer.finish();
+        } finally {
+            release(buffer);
+        }
+    }
+
+    @Override
+    public String renderValue(Object value, int maxChars) {
+        RenderBuffer buffer = acquire(maxChars);
+        try {
+            appendValue(buffer, value);
+            return buffer.finish();
+        } finally {
+            release(buffer);
+        }
+    }
+
+    private void appendValue(RenderBuffer buffer, Object value) {
+        StringBuilder text = buffer.text;
+        if (value == null) {
+            text.append("null");
+        } else if (value instanceof CharSequence || value instanceof Number || value instanceof Boolean
+            || value instanceof Character || value instanceof Enum<?>) {
+            buffer.appendBounded(String.valueOf(value));
+        } else if (value instanceof Collection<?> collection) {
+            text.append(value.getClass().getSimpleName()).append("[size=").append(collection.size()).append(']');
+        } else if (value instanceof Map<?, ?> map) {
+            text.append(value.getClass().getSimpleName()).append("[size=").append(map.size()).append(']');
+        } else if (value.getClass().isArray()) {
+            text.append(value.getClass().getSimpleName()).append("[length=").append(Array.getLength(value)).append(']');
+        } else if (value instanceof HttpEntity<?> entity) {
+            text.append(value.getClass().getSimpleName()).append('[');
+            if (entity instanceof ResponseEntity<?> response) {
+                text.append("status=").append(response.getStatusCode().value()).append(", ");
+            }
+            text.append("body=");
+            appendValue(buffer, entity.getBody());
+            text.append(']');
+        } else {
+            appendJson(buffer, value);
+        }
+    }
+
+    private void appendJson(RenderBuffer buffer, Object value) {
+        int start = buffer.text.length();
+        BoundedWriter writer = new BoundedWriter(buffer);
+        // Closing the generator hands its recycled buffers back to Jackson
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(writer)) {
+            try {
+                objectMapper.writeValue(generator, value);
+            } catch (Exception e) {
+                if (!writer.exhausted) {
+                    // Depth limit or a value Jackson cannot serialize: keep what was written, or fall back to toString
+                    flushQuietly(generator);
+                    if (buffer.text.length() == start) {
+                        appendToString(buffer, value);
+                    } else {
+                        buffer.truncated = true;
+                    }
+                }
+            }
+        } catch (IOException e) {
+            // Creating or closing the generator failed; the partial output is only used for logging
+        }
+    }
+
+    private static void appendToString(RenderBuffer buffer, Object value) {
+        buffer.appendBounded(value.getClass().getSimpleName());
+        buffer.appendBounded("[toString=");
+        if (!buffer.isFull()) {
+            // Appended on its own so an oversized toString is cut without being copied into a larger string
+            buffer.appendBounded(String.valueOf(value));
+        }
+        buffer.appendBounded("]");
+    }
+
+    private static void flushQuietly(JsonGenerator generator) {
+        if (generator != null) {
+            try {
+                generator.flush();
+            } catch (Exception ignored) {
+                // The partial output is only used for logging
+            }
+        }
+    }
+
+    private RenderBuffer acquire(int maxChars) {
+        RenderBuffer buffer = buffers.get();
+        if (buffer.inUse) {
+            // Rendering re-entered on this thread (e.g. a toString that is itself advised)
+            buffer = new RenderBuffer();
+        }
+        buffer.start(maxChars < 0 ? defaultMaxChars : maxChars);
+        return buffer;
+    }
+
+    private void release(RenderBuffer buffer) {
+        buffer.inUse = false;
+        if (buffer.text.capacity() > MAX_RETAINED_CAPACITY) {
+            buffers.set(new RenderBuffer());
+        }
+    }
+
+    private static final class RenderBuffer {
+
+        private final StringBuilder text = new StringBuilder(INITIAL_CAPACITY);
+        private int limit;
+        private boolean truncated;
+        private boolean inUse;
+
+        void start(int maxChars) {
+            text.setLength(0);
+            limit = maxChars;
+            truncated = false;
+            inUse = true;
+        }
+
+        boolean isFull() {
+            return text.length() >= limit;
+        }
+
+        void appendBounded(CharSequence chars) {
+            int room = limit - text.length();
+            if (chars.length() <= room) {
+                text.append(chars);
+            } else {
+                text.append(chars, 0, Math.max(room, 0));
+                truncated = true;
+            }
+        }
+
+        String finish() {
+            if (text.length() > limit) {
+                text.setLength(limit);
+                truncated = true;
+            }
+            if (truncated) {
+                text.append(TRUNCATION_MARKER);
+            }
+            return text.toString();
+        }
+    }
+
+    /**
+     * Writer that appends into the render buffer and aborts serialization once the budget is spent
+     */
+    private static final class BoundedWriter extends Writer {
+
+        private static final IOException BUDGET_EXHAUSTED = new IOException("Payload budget exhausted") {
+            @Override
+            public synchronized Throwable fillInStackTrace() {
+                return this;
+            }
+        };
+
+        private final RenderBuffer buffer;
+        private boolean exhausted;
+
+        BoundedWriter(RenderBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public void write(char[] chars, int offset, int length) throws IOException {
+            write(java.nio.CharBuffer.wrap(chars, offset, length));
+        }
+
+        @Override
+        public void write(String str, int offset, int length) throws IOException {
+            write(str.subSequence(offset, offset + length));
+        }
+
+        private void write(CharSequence chars) throws IOException {
+            if (exhausted) {
+                // Serialization was already aborted; this is the generator flushing on close
+                return;
+            }
+            buffer.appendBounded(chars);
+            if (buffer.truncated) {
+                exhausted = true;
+                throw BUDGET_EXHAUSTED;
+            }
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
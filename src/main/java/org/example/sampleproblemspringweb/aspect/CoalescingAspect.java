@@ -0,0 +1,108 @@
+package org.example.sampleproblemspringweb.aspect;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.example.sampleproblemspringweb.config.DataAccessProperties;
+import org.example.sampleproblemspringweb.service.UserTableVersion;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Single-flight for {@link org.example.sampleproblemspringweb.annotation.Coalesced} reads: while
+ * a call is running, callers of the same method with equal arguments wait for it and get its
+ * result or exception instead of running the same query again.
+ * <p>
+ * Calls only join a flight started at the same {@link UserTableVersion}. The version is bumped
+ * after the commit, so a read issued once the writer's commit has returned never gets a result
+ * loaded before the write. A read issued in the short window between the commit becoming visible
+ * and the bump can still join an older flight and miss that write. Ordered ahead of the data access
+ * limiter and the transaction, so waiting callers hold neither a permit nor a connection; calls
+ * nested in a caller's transaction always run on their own.
+ * <p>
+ * A caller waits at most {@code app.data-access.coalescing.join-timeout} for the shared call and
+ * then runs the call itself, so one stuck query cannot hold every caller of that read.
+ * <p>
+ * Every call is counted in {@value #CALLS_METRIC}, tagged with the method and
+ * {@code result=executed} or {@code result=coalesced}; coalesced calls that gave up waiting are
+ * counted again with {@code result=timeout}.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnProperty(prefix = "app.data-access.coalescing", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class CoalescingAspect {
+
+    public static final String CALLS_METRIC = "app.data-access.calls";
+
+    private static final Logger logger = LoggerFactory.getLogger(CoalescingAspect.class);
+
+    private final UserTableVersion tableVersion;
+    private final MeterRegistry meterRegistry;
+    private final long joinTimeoutNanos;
+    private final ConcurrentHashMap<FlightKey, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    public CoalescingAspect(UserTableVersion tableVersion, DataAccessProperties properties, MeterRegistry meterRegistry) {
+        this.tableVersion = tableVersion;
+        this.meterRegistry = meterRegistry;
+        this.joinTimeoutNanos = properties.getCoalescing().getJoinTimeout().toNanos();
+    }
+
+    @Around("@annotation(org.example.sampleproblemspringweb.annotation.Coalesced)")
+    public Object coalesce(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return joinPoint.proceed();
+        }
+        String method = joinPoint.getSignature().toShortString();
+        FlightKey key = new FlightKey(method, Arrays.asList(joinPoint.getArgs()), tableVersion.current());
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> running = inFlight.putIfAbsent(key, flight);
+        if (running != null) {
+            meterRegistry.counter(CALLS_METRIC, "method", method, "result", "coalesced").increment();
+            logger.debug("Joined in-flight call {} with {}", method, key.args());
+            try {
+                return running.get(joinTimeoutNanos, TimeUnit.NANOSECONDS);
+            } catch (ExecutionException e) {
+                throw e.getCause();
+            } catch (TimeoutException e) {
+                meterRegistry.counter(CALLS_METRIC, "method", method, "result", "timeout").increment();
+                logger.debug("In-flight call {} with {} still running after {}ms, running it again",
+                    method, key.args(), TimeUnit.NANOSECONDS.toMillis(joinTimeoutNanos));
+                return joinPoint.proceed();
+            }
+        }
+
+        meterRegistry.counter(CALLS_METRIC, "method", method, "result", "executed").increment();
+        try {
+            Object result = joinPoint.proceed();
+            flight.complete(result);
+            return result;
+        } catch (Throwable e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    int inFlightCalls() {
+        return inFlight.size();
+    }
+
+    private record FlightKey(String method, List<Object> args, String tableVersion) {
+    }
+}
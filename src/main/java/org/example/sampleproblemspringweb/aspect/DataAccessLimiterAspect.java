@@ -0,0 +1,110 @@
+package org.example.sampleproblemspringweb.aspect;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.example.sampleproblemspringweb.config.DataAccessProperties;
+import org.example.sampleproblemspringweb.exception.ServerBusyException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounds the number of service calls running at once. With virtual threads Tomcat no longer caps
+ * concurrency at its worker pool size, so thousands of requests could otherwise queue inside the
+ * connection pool and run into its timeout; here they wait on a fair semaphore instead and are
+ * rejected with 503 once the acquire timeout passes.
+ * <p>
+ * Ordered right after the {@link CoalescingAspect}, so the permit is taken before the transaction
+ * borrows a connection but not by calls that only wait for another one. Nested service calls on
+ * the same thread reuse the outer permit.
+ * <p>
+ * {@link org.example.sampleproblemspringweb.annotation.Streaming} calls hold their permit until the
+ * client has read the whole response, so they draw from a separate, smaller set of permits and a
+ * slow export cannot block the short calls.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+@ConditionalOnProperty(prefix = "app.data-access.limiter", name = "enabled", havingValue = "true")
+public class DataAccessLimiterAspect {
+
+    /**
+     * Gauges of the free permits and of the calls waiting for one
+     */
+    public static final String AVAILABLE_METRIC = "app.data-access.permits.available";
+    public static final String WAITING_METRIC = "app.data-access.permits.waiting";
+    public static final String STREAMS_AVAILABLE_METRIC = "app.data-access.stream-permits.available";
+
+    private static final Logger logger = LoggerFactory.getLogger(DataAccessLimiterAspect.class);
+
+    private final Semaphore permits;
+    private final Semaphore streamPermits;
+    private final long acquireTimeoutNanos;
+    private final ThreadLocal<int[]> depth = ThreadLocal.withInitial(() -> new int[1]);
+
+    public DataAccessLimiterAspect(DataAccessProperties properties, MeterRegistry meterRegistry) {
+        DataAccessProperties.Limiter limiter = properties.getLimiter();
+        this.permits = new Semaphore(limiter.getMaxConcurrent(), true);
+        this.streamPermits = new Semaphore(limiter.getMaxConcurrentStreams(), true);
+        this.acquireTimeoutNanos = limiter.getAcquireTimeout().toNanos();
+        Gauge.builder(AVAILABLE_METRIC, permits, Semaphore::availablePermits).register(meterRegistry);
+        Gauge.builder(WAITING_METRIC, permits, Semaphore::getQueueLength).register(meterRegistry);
+        Gauge.builder(STREAMS_AVAILABLE_METRIC, streamPermits, Semaphore::availablePermits).register(meterRegistry);
+    }
+
+    @Around("within(@org.springframework.stereotype.Service *) "
+        + "&& !@annotation(org.example.sampleproblemspringweb.annotation.Streaming)")
+    public Object limit(ProceedingJoinPoint joinPoint) throws Throwable {
+        return limit(joinPoint, permits);
+    }
+
+    @Around("within(@org.springframework.stereotype.Service *) "
+        + "&& @annotation(org.example.sampleproblemspringweb.annotation.Streaming)")
+    public Object limitStream(ProceedingJoinPoint joinPoint) throws Throwable {
+        return limit(joinPoint, streamPermits);
+    }
+
+    private Object limit(ProceedingJoinPoint joinPoint, Semaphore permits) throws Throwable {
+        int[] calls = depth.get();
+        if (calls[0] > 0) {
+            return proceedNested(joinPoint, calls);
+        }
+        if (!permits.tryAcquire(acquireTimeoutNanos, TimeUnit.NANOSECONDS)) {
+            logger.warn("No data access permit within {}ms for {}, {} calls waiting",
+                TimeUnit.NANOSECONDS.toMillis(acquireTimeoutNanos), joinPoint.getSignature().toShortString(),
+                permits.getQueueLength());
+            throw new ServerBusyException("data access");
+        }
+        try {
+            return proceedNested(joinPoint, calls);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private Object proceedNested(ProceedingJoinPoint joinPoint, int[] calls) throws Throwable {
+        calls[0]++;
+        try {
+            return joinPoint.proceed();
+        } finally {
+            calls[0]--;
+        }
+    }
+
+    int availablePermits() {
+        return permits.availablePermits();
+    }
+
+    int availableStreamPermits() {
+        return streamPermits.availablePermits();
+    }
+}
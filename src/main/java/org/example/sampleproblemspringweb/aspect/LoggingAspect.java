@@ -1,19 +1,25 @@
 package org.example.sampleproblemspringweb.aspect;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Pointcut;
 import org.aspectj.lang.reflect.MethodSignature;
 import org.example.sampleproblemspringweb.annotation.Loggable;
+import org.example.sampleproblemspringweb.config.LoggingAspectProperties;
+import org.example.sampleproblemspringweb.exception.ExpectedProblem;
+import org.example.sampleproblemspringweb.logging.RequestLogContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
-import org.springframework.util.StopWatch;
+import org.zalando.problem.StatusType;
+import org.zalando.problem.ThrowableProblem;
 
 import java.lang.reflect.Method;
-import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 /**
  * AOP Aspect for automatic method logging.
@@ -23,8 +29,32 @@ import java.util.Arrays;
 @Component
 public class LoggingAspect {
 
+    /**
+     * Timer recording the latency of every advised method, tagged with class and method
+     */
+    public static final String LATENCY_METRIC = "app.method.latency";
+
     private static final Logger logger = LoggerFactory.getLogger(LoggingAspect.class);
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final PayloadRenderer payloadRenderer;
+    private final LoggingAspectProperties.Sampling sampling;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Resolved settings per target class and method. ClassValue keeps the outer lookup
+     * allocation-free and lets classes be unloaded together with their entries.
+     */
+    private final ClassValue<Map<Method, MethodLogMetadata>> metadataCache = new ClassValue<>() {
+        @Override
+        protected Map<Method, MethodLogMetadata> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    public LoggingAspect(PayloadRenderer payloadRenderer, LoggingAspectProperties properties, MeterRegistry meterRegistry) {
+        this.payloadRenderer = payloadRenderer;
+        this.sampling = properties.getSampling();
+        this.meterRegistry = properties.getMetrics().isEnabled() ? meterRegistry : null;
+    }
 
     /**
      * Pointcut for all methods in controllers
@@ -59,124 +89,126 @@ public class LoggingAspect {
      */
     @Around("applicationMethods() || loggableMethods()")
     public Object logMethodExecution(ProceedingJoinPoint joinPoint) throws Throwable {
-        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
-        Method method = signature.getMethod();
-        String className = joinPoint.getTarget().getClass().getSimpleName();
-        String methodName = method.getName();
-        String fullMethodName = className + "." + methodName;
-
-        // Get @Loggable annotation if present
-        Loggable loggable = method.getAnnotation(Loggable.class);
-        if (loggable == null) {
-            loggable = joinPoint.getTarget().getClass().getAnnotation(Loggable.class);
-        }
-
-        // Determine log level
-        Loggable.LogLevel logLevel = loggable != null ? loggable.value() : Loggable.LogLevel.INFO;
-        boolean logParams = loggable == null || loggable.logParams();
-        boolean logResult = loggable == null || loggable.logResult();
-        boolean logExecutionTime = loggable == null || loggable.logExecutionTime();
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        MethodLogMetadata metadata = metadataFor(joinPoint.getTarget().getClass(), method);
+        String fullMethodName = metadata.name();
+        Loggable.LogLevel logLevel = metadata.level();
+
+        // Arguments and results are only rendered when the level is enabled and the call is
+        // sampled or slow, so a skipped call costs a level check, a random draw, two clock reads
+        // and the latency histogram update. With a slow threshold every call over it is logged
+        // and the sample draw is not taken
+        boolean enabled = isEnabled(logLevel);
+        boolean slowCallsOnly = metadata.slowCallsOnly();
+        boolean sampled = enabled && !slowCallsOnly && metadata.sample();
 
         // Log method entry
-        if (logParams) {
-            Object[] args = joinPoint.getArgs();
-            String params = formatArguments(args);
-            logMessage(logLevel, "→ Entering method: {} with parameters: {}", fullMethodName, params);
-        } else {
-            logMessage(logLevel, "→ Entering method: {}", fullMethodName);
+        if (sampled) {
+            if (metadata.logParams()) {
+                logMessage(logLevel, "→ Entering method: {} with parameters: {}",
+                    fullMethodName, payloadRenderer.renderArguments(joinPoint.getArgs(), metadata.maxPayloadChars()));
+            } else {
+                logMessage(logLevel, "→ Entering method: {}", fullMethodName);
+            }
         }
 
-        StopWatch stopWatch = new StopWatch();
-        Object result = null;
+        long startNanos = System.nanoTime();
 
         try {
-            stopWatch.start();
-            result = joinPoint.proceed();
-            stopWatch.stop();
+            Object result = joinPoint.proceed();
+            long elapsedNanos = System.nanoTime() - startNanos;
+            metadata.recordLatency(elapsedNanos);
 
             // Log method exit
-            if (logExecutionTime) {
-                long executionTime = stopWatch.getTotalTimeMillis();
-                if (logResult && result != null) {
-                    String resultStr = formatReturnValue(result);
-                    logMessage(logLevel, "← Exiting method: {} | Execution time: {}ms | Return: {}", 
-                        fullMethodName, executionTime, resultStr);
-                } else {
-                    logMessage(logLevel, "← Exiting method: {} | Execution time: {}ms", 
-                        fullMethodName, executionTime);
-                }
-            } else {
-                if (logResult && result != null) {
-                    String resultStr = formatReturnValue(result);
-                    logMessage(logLevel, "← Exiting method: {} | Return: {}", fullMethodName, resultStr);
-                } else {
-                    logMessage(logLevel, "← Exiting method: {}", fullMethodName);
-                }
+            if (sampled || (enabled && slowCallsOnly && elapsedNanos >= metadata.slowThresholdNanos())) {
+                logExit(metadata, result, TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
             }
 
             return result;
 
         } catch (Throwable e) {
-            stopWatch.stop();
-            long executionTime = stopWatch.getTotalTimeMillis();
-
-            // Log exception
-            logger.error("✗ Exception in method: {} | Execution time: {}ms | Exception: {} - {}", 
-                fullMethodName, executionTime, e.getClass().getSimpleName(), e.getMessage(), e);
+            long elapsedNanos = System.nanoTime() - startNanos;
+            metadata.recordLatency(elapsedNanos);
+            RequestLogContext.putIfAbsent("error", e.getClass().getSimpleName());
+
+            // Log exception, regardless of sampling. Routine problems (unknown user, taken email,
+            // ...) are answered to the client and pass every advised layer, so they get a single
+            // DEBUG line per layer without the stack trace
+            if (isExpected(e)) {
+                logger.debug("✗ Expected problem in method: {} | Execution time: {}ms | Problem: {} - {}",
+                    fullMethodName, TimeUnit.NANOSECONDS.toMillis(elapsedNanos), e.getClass().getSimpleName(), e.getMessage());
+            } else {
+                logger.error("✗ Exception in method: {} | Execution time: {}ms | Exception: {} - {}", 
+                    fullMethodName, TimeUnit.NANOSECONDS.toMillis(elapsedNanos), e.getClass().getSimpleName(), e.getMessage(), e);
+            }
 
             throw e;
         }
     }
 
+    private void logExit(MethodLogMetadata metadata, Object result, long executionTime) {
+        String fullMethodName = metadata.name();
+        Loggable.LogLevel logLevel = metadata.level();
+        boolean logResult = metadata.logResult() && result != null;
+
+        if (metadata.logExecutionTime()) {
+            if (logResult) {
+                logMessage(logLevel, "← Exiting method: {} | Execution time: {}ms | Return: {}",
+                    fullMethodName, executionTime, payloadRenderer.renderValue(result, metadata.maxPayloadChars()));
+            } else {
+                logMessage(logLevel, "← Exiting method: {} | Execution time: {}ms",
+                    fullMethodName, executionTime);
+            }
+        } else {
+            if (logResult) {
+                logMessage(logLevel, "← Exiting method: {} | Return: {}",
+                    fullMethodName, payloadRenderer.renderValue(result, metadata.maxPayloadChars()));
+            } else {
+                logMessage(logLevel, "← Exiting method: {}", fullMethodName);
+            }
+        }
+    }
+
     /**
-     * Format method arguments for logging
+     * Problems the application throws on purpose: {@link ExpectedProblem}s and any other client error
      */
-    private String formatArguments(Object[] args) {
-        if (args == null || args.length == 0) {
-            return "[]";
+    static boolean isExpected(Throwable e) {
+        if (e instanceof ExpectedProblem) {
+            return true;
         }
-
-        try {
-            return Arrays.toString(args);
-        } catch (Exception e) {
-            return "[Unable to serialize arguments]";
+        if (e instanceof ThrowableProblem problem) {
+            StatusType status = problem.getStatus();
+            return status != null && status.getStatusCode() >= 400 && status.getStatusCode() < 500;
         }
+        return false;
     }
 
     /**
-     * Format return value for logging
+     * Look up the cached logging settings for a method, resolving them on first use
      */
-    private String formatReturnValue(Object result) {
-        if (result == null) {
-            return "null";
+    MethodLogMetadata metadataFor(Class<?> targetClass, Method method) {
+        Map<Method, MethodLogMetadata> methods = metadataCache.get(targetClass);
+        MethodLogMetadata metadata = methods.get(method);
+        if (metadata == null) {
+            metadata = methods.computeIfAbsent(method, m -> MethodLogMetadata.resolve(targetClass, m, sampling, meterRegistry));
         }
+        return metadata;
+    }
 
-        try {
-            // If it's a simple type or small object, return as string
-            if (result instanceof String || result instanceof Number || result instanceof Boolean) {
-                return result.toString();
-            }
-
-            // For collections, show size
-            if (result instanceof java.util.Collection) {
-                java.util.Collection<?> collection = (java.util.Collection<?>) result;
-                return String.format("%s[size=%d]", result.getClass().getSimpleName(), collection.size());
-            }
-
-            // For arrays, show length
-            if (result.getClass().isArray()) {
-                return String.format("%s[length=%d]", result.getClass().getSimpleName(), 
-                    java.lang.reflect.Array.getLength(result));
-            }
-
-            // Try to serialize as JSON for complex objects
-            try {
-                return objectMapper.writeValueAsString(result);
-            } catch (Exception e) {
-                return String.format("%s[toString=%s]", result.getClass().getSimpleName(), result.toString());
-            }
-        } catch (Exception e) {
-            return result.getClass().getSimpleName() + "[Unable to serialize]";
+    /**
+     * Check whether the given level is enabled for the aspect logger
+     */
+    private boolean isEnabled(Loggable.LogLevel level) {
+        switch (level) {
+            case DEBUG:
+                return logger.isDebugEnabled();
+            case WARN:
+                return logger.isWarnEnabled();
+            case ERROR:
+                return logger.isErrorEnabled();
+            case INFO:
+            default:
+                return logger.isInfoEnabled();
         }
     }
 
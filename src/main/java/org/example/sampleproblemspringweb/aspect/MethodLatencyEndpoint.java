@@ -0,0 +1,57 @@
+package org.example.sampleproblemspringweb.aspect;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Actuator endpoint ({@code /actuator/latency}) listing count, mean, max and p50/p99/p999
+ * in milliseconds for every method timed by {@link LoggingAspect}. Percentiles cover the
+ * Micrometer sliding window (two minutes by default), count/mean/max the whole uptime.
+ */
+@Component
+@Endpoint(id = "latency")
+public class MethodLatencyEndpoint {
+
+    private final MeterRegistry meterRegistry;
+
+    public MethodLatencyEndpoint(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @ReadOperation
+    public Map<String, Map<String, Object>> latencies() {
+        Map<String, Map<String, Object>> methods = new TreeMap<>();
+        for (Timer timer : meterRegistry.find(LoggingAspect.LATENCY_METRIC).timers()) {
+            String name = timer.getId().getTag("class") + "." + timer.getId().getTag("method");
+            methods.put(name, describe(timer.takeSnapshot()));
+        }
+        return methods;
+    }
+
+    private static Map<String, Object> describe(HistogramSnapshot snapshot) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        values.put("count", snapshot.count());
+        values.put("meanMs", snapshot.mean(TimeUnit.MILLISECONDS));
+        values.put("maxMs", snapshot.max(TimeUnit.MILLISECONDS));
+        for (ValueAtPercentile percentile : snapshot.percentileValues()) {
+            values.put(percentileKey(percentile.percentile()), percentile.value(TimeUnit.MILLISECONDS));
+        }
+        return values;
+    }
+
+    private static String percentileKey(double percentile) {
+        // 0.5 -> p50, 0.99 -> p99, 0.999 -> p999
+        String digits = String.valueOf(percentile).substring(2);
+        return "p" + (digits.length() == 1 ? digits + "0" : digits) + "Ms";
+    }
+}
@@ -0,0 +1,149 @@
+package org.example.sampleproblemspringweb.aspect;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.example.sampleproblemspringweb.annotation.Loggable;
+import org.example.sampleproblemspringweb.config.LoggingAspectProperties;
+import org.example.sampleproblemspringweb.logging.RequestLogContext;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Logging settings of one advised method, resolved once from {@link Loggable} on the method
+ * or its class so the advice does no reflection or string building per call.
+ */
+final class MethodLogMetadata {
+
+    private final String name;
+    private final Loggable.LogLevel level;
+    private final boolean logParams;
+    private final boolean logResult;
+    private final boolean logExecutionTime;
+    private final int maxPayloadChars;
+    private final int sampleRate;
+    private final long slowThresholdNanos;
+    private final Timer latencyTimer;
+    private final String layer;
+
+    private MethodLogMetadata(String name, Loggable loggable, LoggingAspectProperties.Sampling sampling,
+                              Timer latencyTimer, String layer) {
+        this.name = name;
+        this.level = loggable != null ? loggable.value() : Loggable.LogLevel.INFO;
+        this.logParams = loggable == null || loggable.logParams();
+        this.logResult = loggable == null || loggable.logResult();
+        this.logExecutionTime = loggable == null || loggable.logExecutionTime();
+        this.maxPayloadChars = loggable != null ? loggable.maxPayloadChars() : -1;
+        int rate = loggable != null && loggable.sampleRate() >= 0 ? loggable.sampleRate() : sampling.getRate();
+        long thresholdMillis = loggable != null && loggable.slowThresholdMillis() >= 0
+            ? loggable.slowThresholdMillis() : sampling.getSlowThresholdMillis();
+        this.sampleRate = Math.max(rate, 1);
+        this.slowThresholdNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(thresholdMillis, 0));
+        this.latencyTimer = latencyTimer;
+        this.layer = layer;
+    }
+
+    /**
+     * @param meterRegistry registry for the method's latency timer, {@code null} when metrics are disabled
+     */
+    static MethodLogMetadata resolve(Class<?> targetClass, Method method, LoggingAspectProperties.Sampling sampling,
+                                     MeterRegistry meterRegistry) {
+        Loggable loggable = method.getAnnotation(Loggable.class);
+        if (loggable == null) {
+            loggable = targetClass.getAnnotation(Loggable.class);
+        }
+        Timer latencyTimer = null;
+        if (meterRegistry != null) {
+            latencyTimer = Timer.builder(LoggingAspect.LATENCY_METRIC)
+                .description("Latency of methods advised by LoggingAspect")
+                .tag("class", targetClass.getSimpleName())
+                .tag("method", method.getName())
+                .publishPercentiles(0.5, 0.99, 0.999)
+                .percentilePrecision(2)
+                .register(meterRegistry);
+        }
+        return new MethodLogMetadata(targetClass.getSimpleName() + "." + method.getName(), loggable, sampling,
+            latencyTimer, layerOf(targetClass));
+    }
+
+    private static String layerOf(Class<?> targetClass) {
+        if (AnnotatedElementUtils.hasAnnotation(targetClass, RestController.class)) {
+            return "controller";
+        }
+        if (AnnotatedElementUtils.hasAnnotation(targetClass, Service.class)) {
+            return "service";
+        }
+        return null;
+    }
+
+    String name() {
+        return name;
+    }
+
+    Loggable.LogLevel level() {
+        return level;
+    }
+
+    boolean logParams() {
+        return logParams;
+    }
+
+    boolean logResult() {
+        return logResult;
+    }
+
+    boolean logExecutionTime() {
+        return logExecutionTime;
+    }
+
+    int maxPayloadChars() {
+        return maxPayloadChars;
+    }
+
+    int sampleRate() {
+        return sampleRate;
+    }
+
+    long slowThresholdNanos() {
+        return slowThresholdNanos;
+    }
+
+    /**
+     * Only the exit line of calls at or above the threshold is logged
+     */
+    boolean slowCallsOnly() {
+        return slowThresholdNanos > 0;
+    }
+
+    /**
+     * Pick this invocation for logging, 1 in {@code sampleRate}. ThreadLocalRandom keeps the
+     * decision free of shared state, so sampling adds no contention between request threads.
+     */
+    boolean sample() {
+        return sampleRate == 1 || ThreadLocalRandom.current().nextInt(sampleRate) == 0;
+    }
+
+    /**
+     * Record one call into the method's latency histogram (a no-op when metrics are disabled)
+     * and into the current request's wide event
+     */
+    void recordLatency(long elapsedNanos) {
+        if (latencyTimer != null) {
+            latencyTimer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+        }
+        if (layer != null) {
+            RequestLogContext.recordTiming(layer, elapsedNanos);
+        }
+    }
+
+    /**
+     * Layer the method's time is reported under in the request's wide event, {@code null} for other beans
+     */
+    String layer() {
+        return layer;
+    }
+}
@@ -0,0 +1,18 @@
+package org.example.sampleproblemspringweb.aspect;
+
+/**
+ * Renders method parameters and return values for {@link LoggingAspect} log lines.
+ * Implementations must keep the output within the given character budget.
+ */
+public interface PayloadRenderer {
+
+    /**
+     * Render the parameters of a call, {@code maxChars < 0} uses the configured default budget
+     */
+    String renderArguments(Object[] args, int maxChars);
+
+    /**
+     * Render a return value, {@code maxChars < 0} uses the configured default budget
+     */
+    String renderValue(Object value, int maxChars);
+}
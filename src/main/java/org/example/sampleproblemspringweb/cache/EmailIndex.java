@@ -0,0 +1,233 @@
+package org.example.sampleproblemspringweb.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.sampleproblemspringweb.config.UserProperties;
+import org.example.sampleproblemspringweb.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.Locale;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Bloom filter of every email in the users table, so the uniqueness check of a new email can
+ * usually be answered without a query. {@link #mightContain} returning false means the email is
+ * definitely not taken; true means the caller has to ask the database. Until the filter has been
+ * built from the table every email is reported as possibly present.
+ * <p>
+ * Emails are added before the insert that uses them is flushed, so a committed email is never
+ * reported absent. Deleted and replaced emails cannot be removed from a Bloom filter; they only
+ * raise the false positive rate, and the filter is rebuilt from the table in the background once
+ * they make up half of the entries or the filter has outgrown its capacity. A rebuild may stream
+ * the table before a concurrent insert commits, so every email is added once more after its
+ * transaction completes; that second add reaches the new filter whenever the stream missed it.
+ * <p>
+ * Published as {@code users.email.index.size} (bytes), {@code users.email.index.fpp.expected}
+ * (estimated from the bits set), {@code users.email.index.fpp.observed} (share of absent emails
+ * that still needed a query) and the {@code users.email.index.checks} counter.
+ */
+@Component
+public class EmailIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmailIndex.class);
+
+    private final UserRepository userRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Executor rebuildExecutor;
+    private final UserProperties.EmailIndex settings;
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private final AtomicLong entries = new AtomicLong();
+    private final AtomicLong stale = new AtomicLong();
+    private final Counter absent;
+    private final Counter maybe;
+    private final Counter falsePositives;
+    private volatile BloomFilter filter;
+    private volatile BloomFilter next;
+
+    public EmailIndex(UserRepository userRepository, PlatformTransactionManager transactionManager,
+                      @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME) Executor rebuildExecutor,
+                      UserProperties userProperties, MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.rebuildExecutor = rebuildExecutor;
+        this.settings = userProperties.getEmailIndex();
+        this.absent = Counter.builder("users.email.index.checks").tag("result", "absent").register(meterRegistry);
+        this.maybe = Counter.builder("users.email.index.checks").tag("result", "maybe").register(meterRegistry);
+        this.falsePositives = Counter.builder("users.email.index.false.positives")
+            .description("Emails reported as maybe present that the query then did not find")
+            .register(meterRegistry);
+        Gauge.builder("users.email.index.size", this, EmailIndex::sizeInBytes)
+            .baseUnit("bytes")
+            .register(meterRegistry);
+        Gauge.builder("users.email.index.fpp.expected", this, EmailIndex::expectedFalsePositiveRate)
+            .register(meterRegistry);
+        Gauge.builder("users.email.index.fpp.observed", this, EmailIndex::observedFalsePositiveRate)
+            .register(meterRegistry);
+    }
+
+    /**
+     * False if the email is definitely not in the table, true if it has to be checked
+     */
+    public boolean mightContain(String email) {
+        BloomFilter current = filter;
+        if (current == null || email == null) {
+            return true;
+        }
+        if (current.mightContain(normalize(email))) {
+            maybe.increment();
+            return true;
+        }
+        absent.increment();
+        return false;
+    }
+
+    /**
+     * Reports emails answered with {@link #mightContain} true that the query then did not find
+     */
+    public void recordFalsePositives(long count) {
+        if (count > 0) {
+            falsePositives.increment(count);
+        }
+    }
+
+    /**
+     * Adds an email about to be written; call before the insert or update is flushed
+     */
+    public void add(String email) {
+        if (!settings.isEnabled() || email == null) {
+            return;
+        }
+        String normalized = normalize(email);
+        insert(normalized);
+        // A rebuild that streamed the table before this write committed has not seen the email;
+        // once committed, a rebuild still streaming sees it and a finished one gets it here
+        AfterTransaction.run(() -> insert(normalized));
+        entries.incrementAndGet();
+        rebuildIfDegraded();
+    }
+
+    public void addAll(Collection<String> emails) {
+        emails.forEach(this::add);
+    }
+
+    /**
+     * Records emails that were deleted or replaced and now only cause false positives
+     */
+    public void markStale(long count) {
+        if (!settings.isEnabled() || count <= 0) {
+            return;
+        }
+        stale.addAndGet(count);
+        rebuildIfDegraded();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        if (settings.isEnabled() && rebuilding.compareAndSet(false, true)) {
+            rebuild();
+        }
+    }
+
+    public long sizeInBytes() {
+        BloomFilter current = filter;
+        return current != null ? current.sizeInBytes() : 0;
+    }
+
+    public double expectedFalsePositiveRate() {
+        BloomFilter current = filter;
+        return current != null ? current.expectedFalsePositiveRate() : 1.0;
+    }
+
+    /**
+     * Share of emails not in the table that the filter still reported as maybe present
+     */
+    public double observedFalsePositiveRate() {
+        double positives = falsePositives.count();
+        double negatives = positives + absent.count();
+        return negatives > 0 ? positives / negatives : 0.0;
+    }
+
+    /**
+     * Reads the filter being built before the published one: if no rebuild had started at that
+     * point, any rebuild that starts later streams the table after this call began
+     */
+    private void insert(String normalized) {
+        BloomFilter building = next;
+        BloomFilter current = filter;
+        if (building != null) {
+            building.add(normalized);
+        }
+        if (current != null) {
+            current.add(normalized);
+        }
+    }
+
+    private void rebuildIfDegraded() {
+        BloomFilter current = filter;
+        if (current == null) {
+            return;
+        }
+        boolean tooStale = stale.get() * 2 > Math.max(entries.get(), 1);
+        boolean tooFull = current.expectedFalsePositiveRate() > settings.getFalsePositiveRate() * 2;
+        if ((tooStale || tooFull) && rebuilding.compareAndSet(false, true)) {
+            try {
+                rebuildExecutor.execute(this::rebuild);
+            } catch (RejectedExecutionException e) {
+                rebuilding.set(false);
+                logger.warn("Email index rebuild rejected, retrying on a later write");
+            }
+        }
+    }
+
+    /**
+     * Streams every email into a new filter sized for the current table; writes made meanwhile
+     * go to both filters. Caller must have set {@link #rebuilding}.
+     */
+    private void rebuild() {
+        try {
+            long capacity = Math.max(settings.getExpectedEmails(), entries.get() * 2);
+            BloomFilter building = new BloomFilter(capacity, settings.getFalsePositiveRate());
+            next = building;
+            long staleBefore = stale.get();
+            Long count = readOnlyTransaction.execute(status -> {
+                long streamed = 0;
+                try (Stream<String> emails = userRepository.streamAllEmails()) {
+                    for (String email : (Iterable<String>) emails::iterator) {
+                        building.add(normalize(email));
+                        streamed++;
+                    }
+                }
+                return streamed;
+            });
+            filter = building;
+            entries.set(count != null ? count : 0);
+            stale.addAndGet(-staleBefore);
+            logger.info("Email index built with {} emails, {} bytes, expected false positive rate {}",
+                count, building.sizeInBytes(), building.expectedFalsePositiveRate());
+        } catch (RuntimeException e) {
+            logger.warn("Email index build failed, uniqueness checks keep using the query", e);
+        } finally {
+            next = null;
+            rebuilding.set(false);
+        }
+    }
+
+    private static String normalize(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+}
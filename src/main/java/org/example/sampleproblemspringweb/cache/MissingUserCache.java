@@ -0,0 +1,80 @@
+package org.example.sampleproblemspringweb.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.example.sampleproblemspringweb.config.UserProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Ids recently looked up and not found, so repeated lookups of deleted or never assigned ids are
+ * answered with 404 without a query. Bounded by size and a time to live; published as the
+ * {@code cache.gets} metric tagged {@code cache=users.missing}.
+ * <p>
+ * Creating a user clears its id once the transaction completes. Like {@link UserResponseCache},
+ * a lookup that started before such a clear is not recorded.
+ */
+@Component
+public class MissingUserCache {
+
+    public static final String CACHE_NAME = "users.missing";
+
+    private final Cache<Long, Boolean> cache;
+    private final AtomicLong clears = new AtomicLong();
+
+    public MissingUserCache(UserProperties userProperties, MeterRegistry meterRegistry) {
+        UserProperties.MissingCache settings = userProperties.getMissingCache();
+        if (settings.isEnabled()) {
+            this.cache = Caffeine.newBuilder()
+                .maximumSize(settings.getMaxSize())
+                .expireAfterWrite(settings.getTtl())
+                .recordStats()
+                .build();
+            CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        } else {
+            this.cache = null;
+        }
+    }
+
+    public boolean isMissing(Long id) {
+        return cache != null && cache.getIfPresent(id) != null;
+    }
+
+    /**
+     * Clear count to take before a lookup whose miss is then passed to {@link #markMissing}
+     */
+    public long generation() {
+        return clears.get();
+    }
+
+    public void markMissing(Long id, long generation) {
+        if (cache != null && clears.get() == generation) {
+            cache.put(id, Boolean.TRUE);
+            // A clear between the check and the put would otherwise be lost
+            if (clears.get() != generation) {
+                cache.invalidate(id);
+            }
+        }
+    }
+
+    public void clear(Long id) {
+        clearAll(List.of(id));
+    }
+
+    /**
+     * Forgets the ids once the current transaction completes, or right away without one
+     */
+    public void clearAll(Collection<Long> ids) {
+        if (cache != null && !ids.isEmpty()) {
+            AfterTransaction.run(() -> {
+                clears.incrementAndGet();
+                cache.invalidateAll(ids);
+            });
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package org.example.sampleproblemspringweb.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.example.sampleproblemspringweb.config.UserProperties;
+import org.example.sampleproblemspringweb.dto.UserResponseDTO;
+import org.springframework.stereotype.Component;
+
+import java.io.UncheckedIOException;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Serialized JSON of single users keyed by id, so a hit is written to the response without
+ * Hibernate or Jackson. Bounded by size and by a time to live; hits and misses are published as
+ * the {@code cache.gets} metric tagged {@code cache=users.response}.
+ * <p>
+ * Writes invalidate entries when their transaction completes. A reader that loaded the user
+ * before that may still try to store the old JSON, so each store carries the invalidation count
+ * seen before the load and is dropped if an invalidation happened since.
+ */
+@Component
+public class UserResponseCache {
+
+    public static final String CACHE_NAME = "users.response";
+
+    /**
+     * Cached JSON of one user and the version it was serialized from
+     */
+    public record Entry(byte[] json, Long version) {
+    }
+
+    private final Cache<Long, Entry> cache;
+    private final ObjectWriter writer;
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public UserResponseCache(UserProperties userProperties, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        UserProperties.ResponseCache settings = userProperties.getResponseCache();
+        this.writer = objectMapper.writerFor(UserResponseDTO.class);
+        if (settings.isEnabled()) {
+            this.cache = Caffeine.newBuilder()
+                .maximumSize(settings.getMaxSize())
+                .expireAfterWrite(settings.getTtl())
+                .recordStats()
+                .build();
+            CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        } else {
+            this.cache = null;
+        }
+    }
+
+    /**
+     * Cached entry of the user, or null on a miss
+     */
+    public Entry get(Long id) {
+        return cache != null ? cache.getIfPresent(id) : null;
+    }
+
+    /**
+     * Invalidation count to take before loading a user that is then passed to {@link #put}
+     */
+    public long generation() {
+        return invalidations.get();
+    }
+
+    /**
+     * Serializes the user and caches it unless an invalidation happened since {@code generation}
+     */
+    public Entry put(UserResponseDTO user, long generation) {
+        Entry entry = new Entry(serialize(user), user.getVersion());
+        if (cache != null && invalidations.get() == generation) {
+            cache.put(user.getId(), entry);
+            // An invalidation between the check and the put would otherwise be lost
+            if (invalidations.get() != generation) {
+                cache.asMap().remove(user.getId(), entry);
+            }
+        }
+        return entry;
+    }
+
+    public void invalidate(Long id) {
+        invalidateAll(List.of(id));
+    }
+
+    /**
+     * Drops the users once the current transaction completes, or right away without one
+     */
+    public void invalidateAll(Collection<Long> ids) {
+        if (cache != null) {
+            AfterTransaction.run(() -> evict(ids));
+        }
+    }
+
+    private void evict(Collection<Long> ids) {
+        invalidations.incrementAndGet();
+        cache.invalidateAll(ids);
+    }
+
+    private byte[] serialize(UserResponseDTO user) {
+        try {
+            return writer.writeValueAsBytes(user);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package org.example.sampleproblemspringweb.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Fixed-size executors for the async user API. Reads and writes get separate pools so a burst
+ * of slow writes cannot starve lookups; both have bounded queues and reject instead of piling
+ * up work without limit.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.async", name = "enabled", havingValue = "true")
+public class AsyncExecutorConfig {
+
+    public static final String READ_EXECUTOR = "userReadExecutor";
+    public static final String WRITE_EXECUTOR = "userWriteExecutor";
+
+    @Bean(READ_EXECUTOR)
+    public ThreadPoolTaskExecutor userReadExecutor(AsyncProperties properties, ObjectProvider<TaskDecorator> taskDecorator) {
+        return executor("user-read-", properties.getRead(), taskDecorator);
+    }
+
+    @Bean(WRITE_EXECUTOR)
+    public ThreadPoolTaskExecutor userWriteExecutor(AsyncProperties properties, ObjectProvider<TaskDecorator> taskDecorator) {
+        return executor("user-write-", properties.getWrite(), taskDecorator);
+    }
+
+    private ThreadPoolTaskExecutor executor(String threadNamePrefix, AsyncProperties.Pool pool,
+                                            ObjectProvider<TaskDecorator> taskDecorator) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        // Carries the wide event context of the request over to the pool thread
+        taskDecorator.ifUnique(executor::setTaskDecorator);
+        executor.setThreadNamePrefix(threadNamePrefix);
+        executor.setCorePoolSize(pool.getThreads());
+        executor.setMaxPoolSize(pool.getThreads());
+        executor.setQueueCapacity(pool.getQueueCapacity());
+        // Let running calls finish on shutdown so their responses are still written
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(10);
+        return executor;
+    }
+}
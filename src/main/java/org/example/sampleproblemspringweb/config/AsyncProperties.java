@@ -0,0 +1,84 @@
+package org.example.sampleproblemspringweb.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings of the async user API and its executors, bound from {@code app.async.*} properties.
+ */
+@ConfigurationProperties(prefix = "app.async")
+public class AsyncProperties {
+
+    /**
+     * Serve the async user API under /api/async/users
+     */
+    private boolean enabled = false;
+
+    private final Pool read = new Pool(8, 500, Duration.ofSeconds(10));
+    private final Pool write = new Pool(4, 200, Duration.ofSeconds(30));
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Pool getRead() {
+        return read;
+    }
+
+    public Pool getWrite() {
+        return write;
+    }
+
+    public static class Pool {
+
+        /**
+         * Number of threads running service calls
+         */
+        private int threads;
+
+        /**
+         * Calls waiting for a thread; further calls are rejected with 503
+         */
+        private int queueCapacity;
+
+        /**
+         * How long a request waits for its service call before it is answered with 503
+         */
+        private Duration timeout;
+
+        public Pool(int threads, int queueCapacity, Duration timeout) {
+            this.threads = threads;
+            this.queueCapacity = queueCapacity;
+            this.timeout = timeout;
+        }
+
+        public int getThreads() {
+            return threads;
+        }
+
+        public void setThreads(int threads) {
+            this.threads = threads;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        public Duration getTimeout() {
+            return timeout;
+        }
+
+        public void setTimeout(Duration timeout) {
+            this.timeout = timeout;
+        }
+    }
+}
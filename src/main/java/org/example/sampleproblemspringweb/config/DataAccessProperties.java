@@ -0,0 +1,109 @@
+package org.example.sampleproblemspringweb.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings of the data access layer, bound from {@code app.data-access.*} properties.
+ */
+@ConfigurationProperties(prefix = "app.data-access")
+public class DataAccessProperties {
+
+    private final Limiter limiter = new Limiter();
+    private final Coalescing coalescing = new Coalescing();
+
+    public Limiter getLimiter() {
+        return limiter;
+    }
+
+    public Coalescing getCoalescing() {
+        return coalescing;
+    }
+
+    public static class Limiter {
+
+        /**
+         * Bound the number of concurrent service calls, see the virtual-threads profile
+         */
+        private boolean enabled = false;
+
+        /**
+         * Number of service calls allowed at once; together with maxConcurrentStreams normally
+         * the connection pool size
+         */
+        private int maxConcurrent = 8;
+
+        /**
+         * Number of {@code @Streaming} calls (exports) allowed at once, counted apart from
+         * maxConcurrent because they hold their connection until the client has read everything
+         */
+        private int maxConcurrentStreams = 2;
+
+        /**
+         * How long a call waits for a permit before it is rejected with 503
+         */
+        private Duration acquireTimeout = Duration.ofSeconds(2);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getMaxConcurrent() {
+            return maxConcurrent;
+        }
+
+        public void setMaxConcurrent(int maxConcurrent) {
+            this.maxConcurrent = maxConcurrent;
+        }
+
+        public int getMaxConcurrentStreams() {
+            return maxConcurrentStreams;
+        }
+
+        public void setMaxConcurrentStreams(int maxConcurrentStreams) {
+            this.maxConcurrentStreams = maxConcurrentStreams;
+        }
+
+        public Duration getAcquireTimeout() {
+            return acquireTimeout;
+        }
+
+        public void setAcquireTimeout(Duration acquireTimeout) {
+            this.acquireTimeout = acquireTimeout;
+        }
+    }
+
+    public static class Coalescing {
+
+        /**
+         * Let concurrent identical user reads share one query and its result
+         */
+        private boolean enabled = true;
+
+        /**
+         * How long a call waits for the in-flight one before it runs the query itself
+         */
+        private Duration joinTimeout = Duration.ofSeconds(5);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Duration getJoinTimeout() {
+            return joinTimeout;
+        }
+
+        public void setJoinTimeout(Duration joinTimeout) {
+            this.joinTimeout = joinTimeout;
+        }
+    }
+}
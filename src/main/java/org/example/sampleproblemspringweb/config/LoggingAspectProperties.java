@@ -0,0 +1,100 @@
+package org.example.sampleproblemspringweb.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings of the AOP logging aspect, bound from {@code app.logging.aspect.*} properties.
+ */
+@ConfigurationProperties(prefix = "app.logging.aspect")
+public class LoggingAspectProperties {
+
+    private final Payload payload = new Payload();
+    private final Sampling sampling = new Sampling();
+    private final Metrics metrics = new Metrics();
+
+    public Payload getPayload() {
+        return payload;
+    }
+
+    public Sampling getSampling() {
+        return sampling;
+    }
+
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    public static class Payload {
+
+        /**
+         * Character budget for the rendered parameters or return value of one log line
+         */
+        private int maxChars = 1000;
+
+        /**
+         * Maximum nesting depth rendered for JSON payloads
+         */
+        private int maxDepth = 4;
+
+        public int getMaxChars() {
+            return maxChars;
+        }
+
+        public void setMaxChars(int maxChars) {
+            this.maxChars = maxChars;
+        }
+
+        public int getMaxDepth() {
+            return maxDepth;
+        }
+
+        public void setMaxDepth(int maxDepth) {
+            this.maxDepth = maxDepth;
+        }
+    }
+
+    public static class Sampling {
+
+        /**
+         * Log 1 in N successful invocations, 1 logs every call. Not applied with a slow threshold
+         */
+        private int rate = 1;
+
+        /**
+         * Only log successful invocations at least this slow, all of them, 0 disables the threshold
+         */
+        private long slowThresholdMillis = 0;
+
+        public int getRate() {
+            return rate;
+        }
+
+        public void setRate(int rate) {
+            this.rate = rate;
+        }
+
+        public long getSlowThresholdMillis() {
+            return slowThresholdMillis;
+        }
+
+        public void setSlowThresholdMillis(long slowThresholdMillis) {
+            this.slowThresholdMillis = slowThresholdMillis;
+        }
+    }
+
+    public static class Metrics {
+
+        /**
+         * Record the latency of every advised call into a per-method timer
+         */
+        private boolean enabled = true;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+    }
+}
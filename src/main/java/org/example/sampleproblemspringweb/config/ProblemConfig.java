@@ -0,0 +1,40 @@
+package org.example.sampleproblemspringweb.config;
+
+import org.example.sampleproblemspringweb.exception.ExpectedProblem;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Applies {@link ProblemProperties} to the exceptions, which are created with {@code new} and
+ * cannot be injected.
+ * <p>
+ * The setting is a static flag and therefore process-wide: it is applied once the context is
+ * fully initialized and set back to the default when the context is closed. Contexts running
+ * side by side in one JVM (such as cached test contexts) must agree on it; a test using the
+ * lean-problems profile should close its context afterwards.
+ */
+@Configuration
+public class ProblemConfig implements SmartInitializingSingleton, DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProblemConfig.class);
+
+    private final ProblemProperties properties;
+
+    public ProblemConfig(ProblemProperties properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        ExpectedProblem.setStackTraces(properties.isStackTraces());
+        logger.info("Stack traces of expected problems {}", properties.isStackTraces() ? "enabled" : "disabled");
+    }
+
+    @Override
+    public void destroy() {
+        ExpectedProblem.setStackTraces(true);
+    }
+}
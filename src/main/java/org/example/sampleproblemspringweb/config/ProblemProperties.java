@@ -0,0 +1,25 @@
+package org.example.sampleproblemspringweb.config;
+
+import org.example.sampleproblemspringweb.exception.ExpectedProblem;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings of the problems thrown by the application, bound from {@code app.problems.*} properties.
+ */
+@ConfigurationProperties(prefix = "app.problems")
+public class ProblemProperties {
+
+    /**
+     * Capture stack traces for {@link ExpectedProblem}s (404, 409, ...). Turn off together with
+     * problem.with-stack-trace, see the lean-problems profile
+     */
+    private boolean stackTraces = true;
+
+    public boolean isStackTraces() {
+        return stackTraces;
+    }
+
+    public void setStackTraces(boolean stackTraces) {
+        this.stackTraces = stackTraces;
+    }
+}
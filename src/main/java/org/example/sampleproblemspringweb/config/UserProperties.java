@@ -0,0 +1,255 @@
+package org.example.sampleproblemspringweb.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Tunables for the user API, bound from {@code app.users.*} properties.
+ */
+@ConfigurationProperties(prefix = "app.users")
+public class UserProperties {
+
+    private final Page page = new Page();
+    private final Batch batch = new Batch();
+    private final Create create = new Create();
+    private final ResponseCache responseCache = new ResponseCache();
+    private final MissingCache missingCache = new MissingCache();
+    private final EmailIndex emailIndex = new EmailIndex();
+
+    public Page getPage() {
+        return page;
+    }
+
+    public Batch getBatch() {
+        return batch;
+    }
+
+    public Create getCreate() {
+        return create;
+    }
+
+    public ResponseCache getResponseCache() {
+        return responseCache;
+    }
+
+    public MissingCache getMissingCache() {
+        return missingCache;
+    }
+
+    public EmailIndex getEmailIndex() {
+        return emailIndex;
+    }
+
+    public static class Page {
+
+        /**
+         * Page size used when the client does not send a limit
+         */
+        private int defaultLimit = 20;
+
+        /**
+         * Upper bound for the page size a client may request
+         */
+        private int maxLimit = 100;
+
+        public int getDefaultLimit() {
+            return defaultLimit;
+        }
+
+        public void setDefaultLimit(int defaultLimit) {
+            this.defaultLimit = defaultLimit;
+        }
+
+        public int getMaxLimit() {
+            return maxLimit;
+        }
+
+        public void setMaxLimit(int maxLimit) {
+            this.maxLimit = maxLimit;
+        }
+    }
+
+    public static class Batch {
+
+        /**
+         * Maximum number of entries accepted by a single bulk request
+         */
+        private int maxSize = 1000;
+
+        /**
+         * Maximum number of ids bound into one IN list; larger lookups run one query per chunk
+         */
+        private int queryChunkSize = 500;
+
+        public int getMaxSize() {
+            return maxSize;
+        }
+
+        public void setMaxSize(int maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        public int getQueryChunkSize() {
+            return queryChunkSize;
+        }
+
+        public void setQueryChunkSize(int queryChunkSize) {
+            this.queryChunkSize = queryChunkSize;
+        }
+    }
+
+    public static class Create {
+
+        /**
+         * How email uniqueness is enforced on create and update
+         */
+        private UniquenessCheck uniquenessCheck = UniquenessCheck.QUERY;
+
+        public UniquenessCheck getUniquenessCheck() {
+            return uniquenessCheck;
+        }
+
+        public void setUniquenessCheck(UniquenessCheck uniquenessCheck) {
+            this.uniquenessCheck = uniquenessCheck;
+        }
+    }
+
+    public static class ResponseCache {
+
+        /**
+         * Serve GET /api/users/{id} from cached JSON bytes
+         */
+        private boolean enabled = true;
+
+        /**
+         * Maximum number of cached users, least recently used entries are evicted first
+         */
+        private long maxSize = 10_000;
+
+        /**
+         * How long an entry is served after it was written; bounds staleness if an
+         * invalidation is ever missed
+         */
+        private Duration ttl = Duration.ofMinutes(5);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getMaxSize() {
+            return maxSize;
+        }
+
+        public void setMaxSize(long maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        public Duration getTtl() {
+            return ttl;
+        }
+
+        public void setTtl(Duration ttl) {
+            this.ttl = ttl;
+        }
+    }
+
+    public static class MissingCache {
+
+        /**
+         * Answer lookups of recently missed ids with 404 without a query
+         */
+        private boolean enabled = true;
+
+        /**
+         * Maximum number of remembered ids, least recently used entries are evicted first
+         */
+        private long maxSize = 10_000;
+
+        /**
+         * How long a missed id is remembered
+         */
+        private Duration ttl = Duration.ofMinutes(1);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getMaxSize() {
+            return maxSize;
+        }
+
+        public void setMaxSize(long maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        public Duration getTtl() {
+            return ttl;
+        }
+
+        public void setTtl(Duration ttl) {
+            this.ttl = ttl;
+        }
+    }
+
+    public static class EmailIndex {
+
+        /**
+         * Skip the existsByEmail query for emails the in-memory index has never seen
+         */
+        private boolean enabled = true;
+
+        /**
+         * Number of emails the index is sized for; it is rebuilt larger once the table outgrows it
+         */
+        private long expectedEmails = 100_000;
+
+        /**
+         * Target share of new emails that still need a query
+         */
+        private double falsePositiveRate = 0.01;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getExpectedEmails() {
+            return expectedEmails;
+        }
+
+        public void setExpectedEmails(long expectedEmails) {
+            this.expectedEmails = expectedEmails;
+        }
+
+        public double getFalsePositiveRate() {
+            return falsePositiveRate;
+        }
+
+        public void setFalsePositiveRate(double falsePositiveRate) {
+            this.falsePositiveRate = falsePositiveRate;
+        }
+    }
+
+    public enum UniquenessCheck {
+        /**
+         * Run existsByEmail before writing; the unique constraint only catches races
+         */
+        QUERY,
+        /**
+         * Write straight away and translate a unique constraint violation, one round trip per write
+         */
+        CONSTRAINT
+    }
+}
@@ -0,0 +1,234 @@
+package org.example.sampleproblemspringweb.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.example.sampleproblemspringweb.cache.UserResponseCache;
+import org.example.sampleproblemspringweb.config.AsyncExecutorConfig;
+import org.example.sampleproblemspringweb.config.AsyncProperties;
+import org.example.sampleproblemspringweb.dto.UserDTO;
+import org.example.sampleproblemspringweb.dto.UserPageDTO;
+import org.example.sampleproblemspringweb.dto.UserResponseDTO;
+import org.example.sampleproblemspringweb.exception.ServerBusyException;
+import org.example.sampleproblemspringweb.exception.ServerTimeoutException;
+import org.example.sampleproblemspringweb.exception.WriteOutcomeUnknownException;
+import org.example.sampleproblemspringweb.logging.RequestLogContext;
+import org.example.sampleproblemspringweb.service.UserService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+import static org.example.sampleproblemspringweb.controller.UserETags.expectedVersion;
+import static org.example.sampleproblemspringweb.controller.UserETags.matchesETag;
+import static org.example.sampleproblemspringweb.controller.UserETags.quote;
+import static org.example.sampleproblemspringweb.controller.UserETags.userETag;
+import static org.example.sampleproblemspringweb.controller.UserETags.userJson;
+
+/**
+ * Async variant of {@link UserController}: the service call runs on the read or write executor
+ * and the servlet thread is released while it waits for the database. Exceptions thrown by the
+ * service complete the future and are rendered as problems like on the synchronous API, as are
+ * calls that outlast the pool's {@code app.async.*.timeout}: a read is answered with 503, a write
+ * with 504 because it may still commit. ETags, If-None-Match, If-Match and the serialized user
+ * cache work as on the synchronous API.
+ */
+@RestController
+@RequestMapping("/api/async/users")
+@Tag(name = "Users (async)", description = "User management API served from dedicated executors")
+@ConditionalOnProperty(prefix = "app.async", name = "enabled", havingValue = "true")
+public class AsyncUserController {
+
+    private static final Logger logger = LoggerFactory.getLogger(AsyncUserController.class);
+    private final UserService userService;
+    private final UserResponseCache responseCache;
+    private final Executor readExecutor;
+    private final Executor writeExecutor;
+    private final Duration readTimeout;
+    private final Duration writeTimeout;
+
+    public AsyncUserController(UserService userService, UserResponseCache responseCache, AsyncProperties properties,
+                               @Qualifier(AsyncExecutorConfig.READ_EXECUTOR) Executor readExecutor,
+                               @Qualifier(AsyncExecutorConfig.WRITE_EXECUTOR) Executor writeExecutor) {
+        this.userService = userService;
+        this.responseCache = responseCache;
+        this.readExecutor = readExecutor;
+        this.writeExecutor = writeExecutor;
+        this.readTimeout = properties.getRead().getTimeout();
+        this.writeTimeout = properties.getWrite().getTimeout();
+        logger.info("AsyncUserController initialized");
+    }
+
+    @PostMapping
+    @Operation(summary = "Create a new user", description = "Creates a new user with the provided information")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "201", description = "User successfully created"),
+        @ApiResponse(responseCode = "400", description = "Invalid input data"),
+        @ApiResponse(responseCode = "409", description = "Email already exists"),
+        @ApiResponse(responseCode = "503", description = "Write executor is saturated"),
+        @ApiResponse(responseCode = "504", description = "No result within the write timeout, the user may still be created")
+    })
+    public CompletableFuture<ResponseEntity<UserResponseDTO>> createUser(@Valid @RequestBody UserDTO userDTO) {
+        logger.info("Received async request to create user with email: {}", userDTO.getEmail());
+        return write(() -> userService.createUser(userDTO))
+            .thenApply(user -> ResponseEntity.status(HttpStatus.CREATED).body(user));
+    }
+
+    @GetMapping("/{id}")
+    @Operation(summary = "Get user by ID", description = "Retrieves a user by their unique identifier")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "User found",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = UserResponseDTO.class))),
+        @ApiResponse(responseCode = "304", description = "User unchanged since the ETag in If-None-Match"),
+        @ApiResponse(responseCode = "404", description = "User not found"),
+        @ApiResponse(responseCode = "503", description = "Read executor is saturated or the lookup timed out")
+    })
+    public CompletableFuture<ResponseEntity<byte[]>> getUserById(
+            @Parameter(description = "User ID", required = true) @PathVariable Long id,
+            @Parameter(description = "ETag of a copy the client already has")
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        logger.info("Received async request to get user by ID: {}", id);
+        // A cache hit is answered right away without a trip to the read executor
+        UserResponseCache.Entry cached = responseCache.get(id);
+        if (cached != null) {
+            RequestLogContext.put("cache", "hit");
+            return CompletableFuture.completedFuture(userJson(cached, ifNoneMatch));
+        }
+        RequestLogContext.put("cache", "miss");
+        return read(() -> {
+            if (ifNoneMatch != null) {
+                Optional<Long> version = userService.getUserVersion(id);
+                if (version.isPresent() && matchesETag(ifNoneMatch, userETag(version.get()))) {
+                    RequestLogContext.put("notModified", true);
+                    return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(userETag(version.get())).<byte[]>build();
+                }
+            }
+            long generation = responseCache.generation();
+            UserResponseDTO user = userService.getUserById(id);
+            return userJson(responseCache.put(user, generation), null);
+        });
+    }
+
+    // Lookups by ID are only served by the synchronous API; ids matches no mapping and is rejected with 400
+    @GetMapping(params = "!ids")
+    @Operation(summary = "Get users page",
+        description = "Retrieves users ordered by ID using a keyset cursor. Pass the returned nextCursor as 'after' to fetch the next page; "
+            + "without 'limit' the page has app.users.page.default-limit users")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved page"),
+        @ApiResponse(responseCode = "304", description = "No user changed since the ETag in If-None-Match"),
+        @ApiResponse(responseCode = "503", description = "Read executor is saturated or the lookup timed out")
+    })
+    public CompletableFuture<ResponseEntity<UserPageDTO>> getUsersPage(
+            @Parameter(description = "Return users with an ID greater than this cursor") @RequestParam(required = false) Long after,
+            @Parameter(description = "Maximum number of users to return") @RequestParam(required = false) Integer limit,
+            @Parameter(description = "ETag of a page the client already has")
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        logger.info("Received async request to get users page after ID: {} with limit: {}", after, limit);
+        return read(() -> {
+            // Read before the rows: a write committing in between yields an older tag, never a newer one
+            String etag = quote(userService.getUsersVersion());
+            if (ifNoneMatch != null && matchesETag(ifNoneMatch, etag)) {
+                RequestLogContext.put("notModified", true);
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).<UserPageDTO>build();
+            }
+            return ResponseEntity.ok().eTag(etag).body(userService.getUsersPage(after, limit));
+        });
+    }
+
+    @PutMapping("/{id}")
+    @Operation(summary = "Update user", description = "Updates an existing user's information")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "User successfully updated"),
+        @ApiResponse(responseCode = "400", description = "Invalid input data"),
+        @ApiResponse(responseCode = "404", description = "User not found"),
+        @ApiResponse(responseCode = "409", description = "Email already exists"),
+        @ApiResponse(responseCode = "412", description = "User changed since the ETag in If-Match"),
+        @ApiResponse(responseCode = "503", description = "Write executor is saturated"),
+        @ApiResponse(responseCode = "504", description = "No result within the write timeout, the update may still be applied")
+    })
+    public CompletableFuture<ResponseEntity<UserResponseDTO>> updateUser(
+            @Parameter(description = "User ID", required = true) @PathVariable Long id,
+            @Valid @RequestBody UserDTO userDTO,
+            @Parameter(description = "ETag the update is based on; the update fails with 412 if the user changed since")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        logger.info("Received async request to update user with ID: {} and email: {}", id, userDTO.getEmail());
+        Long expectedVersion = expectedVersion(id, ifMatch);
+        return write(() -> expectedVersion == null
+                ? userService.updateUser(id, userDTO)
+                : userService.updateUser(id, userDTO, expectedVersion))
+            .thenApply(user -> ResponseEntity.ok().eTag(userETag(user.getVersion())).body(user));
+    }
+
+    @DeleteMapping("/{id}")
+    @Operation(summary = "Delete user", description = "Deletes a user by their unique identifier")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "204", description = "User successfully deleted"),
+        @ApiResponse(responseCode = "404", description = "User not found"),
+        @ApiResponse(responseCode = "503", description = "Write executor is saturated"),
+        @ApiResponse(responseCode = "504", description = "No result within the write timeout, the user may still be deleted")
+    })
+    public CompletableFuture<ResponseEntity<Void>> deleteUser(
+            @Parameter(description = "User ID", required = true) @PathVariable Long id) {
+        logger.info("Received async request to delete user with ID: {}", id);
+        return write(() -> {
+            userService.deleteUser(id);
+            return ResponseEntity.noContent().<Void>build();
+        });
+    }
+
+    private <T> CompletableFuture<T> read(Supplier<T> call) {
+        return submit(readExecutor, "user reads", readTimeout, call,
+            () -> new ServerTimeoutException("user reads", readTimeout));
+    }
+
+    /**
+     * A timed out write keeps running and may still commit, so it is not answered with a retryable 503
+     */
+    private <T> CompletableFuture<T> write(Supplier<T> call) {
+        return submit(writeExecutor, "user writes", writeTimeout, call,
+            () -> new WriteOutcomeUnknownException("user writes", writeTimeout));
+    }
+
+    /**
+     * Runs the call on the executor and fails the request with the timeout problem once the timeout
+     * passes. The call itself is not interrupted; its result is dropped.
+     */
+    private <T> CompletableFuture<T> submit(Executor executor, String resource, Duration timeout, Supplier<T> call,
+                                            Supplier<? extends RuntimeException> timeoutProblem) {
+        CompletableFuture<T> future;
+        try {
+            future = CompletableFuture.supplyAsync(call, executor);
+        } catch (RejectedExecutionException e) {
+            logger.warn("Executor for {} is saturated, rejecting request", resource);
+            throw new ServerBusyException(resource);
+        }
+        return future.orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS)
+            .exceptionallyCompose(e -> {
+                if (e instanceof TimeoutException) {
+                    logger.warn("No result for {} within {}ms", resource, timeout.toMillis());
+                    return CompletableFuture.failedFuture(timeoutProblem.get());
+                }
+                return CompletableFuture.failedFuture(e);
+            });
+    }
+}
@@ -1,21 +1,46 @@
 package org.example.sampleproblemspringweb.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.example.sampleproblemspringweb.cache.UserResponseCache;
+import org.example.sampleproblemspringweb.dto.UserBatchResultDTO;
 import org.example.sampleproblemspringweb.dto.UserDTO;
+import org.example.sampleproblemspringweb.dto.UserDeleteResultDTO;
+import org.example.sampleproblemspringweb.dto.UserLookupResultDTO;
+import org.example.sampleproblemspringweb.dto.UserPageDTO;
 import org.example.sampleproblemspringweb.dto.UserResponseDTO;
+import org.example.sampleproblemspringweb.logging.RequestLogContext;
 import org.example.sampleproblemspringweb.service.UserService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.Optional;
+
+import static org.example.sampleproblemspringweb.controller.UserETags.expectedVersion;
+import static org.example.sampleproblemspringweb.controller.UserETags.matchesETag;
+import static org.example.sampleproblemspringweb.controller.UserETags.quote;
+import static org.example.sampleproblemspringweb.controller.UserETags.userETag;
+import static org.example.sampleproblemspringweb.controller.UserETags.userJson;
 
 @RestController
 @RequestMapping("/api/users")
@@ -24,9 +49,13 @@ public class UserController {
 
     private static final Logger logger = LoggerFactory.getLogger(UserController.class);
     private final UserService userService;
+    private final ObjectMapper objectMapper;
+    private final UserResponseCache responseCache;
 
-    public UserController(UserService userService) {
+    public UserController(UserService userService, ObjectMapper objectMapper, UserResponseCache responseCache) {
         this.userService = userService;
+        this.objectMapper = objectMapper;
+        this.responseCache = responseCache;
         logger.info("UserController initialized");
     }
 
@@ -40,46 +69,140 @@ public class UserController {
     public ResponseEntity<UserResponseDTO> createUser(
             @Valid @RequestBody UserDTO userDTO) {
         logger.info("Received request to create user with email: {}", userDTO.getEmail());
+        RequestLogContext.put("email", userDTO.getEmail());
         try {
             UserResponseDTO createdUser = userService.createUser(userDTO);
             logger.info("User created successfully with ID: {} and email: {}", 
                 createdUser.getId(), createdUser.getEmail());
+            RequestLogContext.put("userId", createdUser.getId());
             return ResponseEntity.status(HttpStatus.CREATED).body(createdUser);
         } catch (Exception e) {
-            logger.error("Error creating user with email: {}", userDTO.getEmail(), e);
+            logger.warn("Error creating user with email: {}", userDTO.getEmail());
             throw e;
         }
     }
 
+    @PostMapping("/batch")
+    @Operation(summary = "Create users in bulk",
+        description = "Creates many users in one request. Each entry is validated and checked for email uniqueness on its own; "
+            + "the response reports success or a problem for every entry in request order")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "201", description = "All users successfully created"),
+        @ApiResponse(responseCode = "207", description = "Some entries failed, see the per-entry problems"),
+        @ApiResponse(responseCode = "400", description = "Batch exceeds the maximum size")
+    })
+    public ResponseEntity<UserBatchResultDTO> createUsers(@RequestBody List<UserDTO> userDTOs) {
+        logger.info("Received request to create batch of {} users", userDTOs.size());
+        UserBatchResultDTO result = userService.createUsers(userDTOs);
+        logger.info("Batch processed: {} created, {} failed", result.getCreated(), result.getFailed());
+        RequestLogContext.put("created", result.getCreated());
+        RequestLogContext.put("failed", result.getFailed());
+        HttpStatus status = result.getFailed() == 0 ? HttpStatus.CREATED : HttpStatus.MULTI_STATUS;
+        return ResponseEntity.status(status).body(result);
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Get user by ID", description = "Retrieves a user by their unique identifier")
     @ApiResponses(value = {
-        @ApiResponse(responseCode = "200", description = "User found"),
+        @ApiResponse(responseCode = "200", description = "User found",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = UserResponseDTO.class))),
+        @ApiResponse(responseCode = "304", description = "User unchanged since the ETag in If-None-Match"),
         @ApiResponse(responseCode = "404", description = "User not found")
     })
-    public ResponseEntity<UserResponseDTO> getUserById(
-            @Parameter(description = "User ID", required = true) @PathVariable Long id) {
+    public ResponseEntity<byte[]> getUserById(
+            @Parameter(description = "User ID", required = true) @PathVariable Long id,
+            @Parameter(description = "ETag of a copy the client already has")
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         logger.info("Received request to get user by ID: {}", id);
-        try {
-            UserResponseDTO user = userService.getUserById(id);
-            logger.info("User found with ID: {} and email: {}", user.getId(), user.getEmail());
-            return ResponseEntity.ok(user);
-        } catch (Exception e) {
-            logger.warn("User not found with ID: {}", id);
-            throw e;
+        // The body is pre-serialized JSON, a hit touches neither Hibernate nor Jackson
+        UserResponseCache.Entry cached = responseCache.get(id);
+        if (cached != null) {
+            logger.info("User with ID: {} served from cache", id);
+            RequestLogContext.put("cache", "hit");
+            return userJson(cached, ifNoneMatch);
+        }
+        RequestLogContext.put("cache", "miss");
+        if (ifNoneMatch != null) {
+            // Only the version column is read; the row is loaded when the client's copy is stale
+            Optional<Long> version = userService.getUserVersion(id);
+            if (version.isPresent() && matchesETag(ifNoneMatch, userETag(version.get()))) {
+                logger.info("User with ID: {} not modified", id);
+                RequestLogContext.put("notModified", true);
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(userETag(version.get())).build();
+            }
         }
+        long generation = responseCache.generation();
+        UserResponseDTO user = userService.getUserById(id);
+        logger.info("User found with ID: {} and email: {}", user.getId(), user.getEmail());
+        RequestLogContext.put("email", user.getEmail());
+        return userJson(responseCache.put(user, generation), null);
+    }
+
+    @GetMapping(params = "!ids")
+    @Operation(summary = "Get users page",
+        description = "Retrieves users ordered by ID using a keyset cursor. Pass the returned nextCursor as 'after' to fetch the next page; "
+            + "without 'limit' the page has app.users.page.default-limit users")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved page"),
+        @ApiResponse(responseCode = "304", description = "No user changed since the ETag in If-None-Match")
+    })
+    public ResponseEntity<UserPageDTO> getUsersPage(
+            @Parameter(description = "Return users with an ID greater than this cursor") @RequestParam(required = false) Long after,
+            @Parameter(description = "Maximum number of users to return") @RequestParam(required = false) Integer limit,
+            @Parameter(description = "ETag of a page the client already has")
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        logger.info("Received request to get users page after ID: {} with limit: {}", after, limit);
+        // Read before the rows: a write committing in between yields an older tag, never a newer one
+        String etag = quote(userService.getUsersVersion());
+        if (ifNoneMatch != null && matchesETag(ifNoneMatch, etag)) {
+            logger.info("Users page not modified");
+            RequestLogContext.put("notModified", true);
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        UserPageDTO page = userService.getUsersPage(after, limit);
+        logger.info("Retrieved {} users, next cursor: {}", page.getContent().size(), page.getNextCursor());
+        RequestLogContext.put("users", page.getContent().size());
+        return ResponseEntity.ok().eTag(etag).body(page);
+    }
+
+    // Mixing ids with paging parameters matches no mapping and is rejected with 400
+    @GetMapping(params = {"ids", "!limit", "!after"})
+    @Operation(summary = "Get users by IDs",
+        description = "Resolves many users in one request, in the order of the IDs given. IDs without a user are listed under 'missing'")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Lookup executed, see the found users and missing IDs"),
+        @ApiResponse(responseCode = "400", description = "Too many IDs in one request")
+    })
+    public ResponseEntity<UserLookupResultDTO> getUsersByIds(
+            @Parameter(description = "Comma-separated user IDs", required = true) @RequestParam List<Long> ids) {
+        logger.info("Received request to get {} users by ID", ids.size());
+        return lookupUsers(ids);
     }
 
-    @GetMapping
-    @Operation(summary = "Get all users", description = "Retrieves a list of all users")
+    @PostMapping("/lookup")
+    @Operation(summary = "Get users by IDs from a request body",
+        description = "Same as GET /api/users?ids=... for ID lists too long for a query string")
     @ApiResponses(value = {
-        @ApiResponse(responseCode = "200", description = "Successfully retrieved list")
+        @ApiResponse(responseCode = "200", description = "Lookup executed, see the found users and missing IDs"),
+        @ApiResponse(responseCode = "400", description = "Too many IDs in one request")
     })
-    public ResponseEntity<List<UserResponseDTO>> getAllUsers() {
-        logger.info("Received request to get all users");
-        List<UserResponseDTO> users = userService.getAllUsers();
-        logger.info("Retrieved {} users", users.size());
-        return ResponseEntity.ok(users);
+    public ResponseEntity<UserLookupResultDTO> getUsersByIdsFromBody(@RequestBody List<Long> ids) {
+        logger.info("Received request to look up {} users by ID", ids.size());
+        return lookupUsers(ids);
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Export all users",
+        description = "Streams every user as newline-delimited JSON, one user per line, ordered by ID")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Export stream started")
+    })
+    public ResponseEntity<StreamingResponseBody> exportUsers() {
+        logger.info("Received request to export all users");
+        StreamingResponseBody body = this::writeUsersAsNdjson;
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_NDJSON)
+            .body(body);
     }
 
     @PutMapping("/{id}")
@@ -88,19 +211,26 @@ public class UserController {
         @ApiResponse(responseCode = "200", description = "User successfully updated"),
         @ApiResponse(responseCode = "400", description = "Invalid input data"),
         @ApiResponse(responseCode = "404", description = "User not found"),
-        @ApiResponse(responseCode = "409", description = "Email already exists")
+        @ApiResponse(responseCode = "409", description = "Email already exists"),
+        @ApiResponse(responseCode = "412", description = "User changed since the ETag in If-Match")
     })
     public ResponseEntity<UserResponseDTO> updateUser(
             @Parameter(description = "User ID", required = true) @PathVariable Long id,
-            @Valid @RequestBody UserDTO userDTO) {
+            @Valid @RequestBody UserDTO userDTO,
+            @Parameter(description = "ETag the update is based on; the update fails with 412 if the user changed since")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         logger.info("Received request to update user with ID: {} and email: {}", id, userDTO.getEmail());
+        RequestLogContext.put("email", userDTO.getEmail());
         try {
-            UserResponseDTO updatedUser = userService.updateUser(id, userDTO);
+            Long expectedVersion = expectedVersion(id, ifMatch);
+            UserResponseDTO updatedUser = expectedVersion == null
+                ? userService.updateUser(id, userDTO)
+                : userService.updateUser(id, userDTO, expectedVersion);
             logger.info("User updated successfully with ID: {} and email: {}", 
                 updatedUser.getId(), updatedUser.getEmail());
-            return ResponseEntity.ok(updatedUser);
+            return ResponseEntity.ok().eTag(userETag(updatedUser.getVersion())).body(updatedUser);
         } catch (Exception e) {
-            logger.error("Error updating user with ID: {}", id, e);
+            logger.warn("Error updating user with ID: {}", id);
             throw e;
         }
     }
@@ -123,5 +253,52 @@ public class UserController {
             throw e;
         }
     }
-}
 
+    @DeleteMapping(params = "ids")
+    @Operation(summary = "Delete users in bulk",
+        description = "Deletes every user whose ID is listed with a single statement and reports how many were removed")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Delete executed, see the deleted count"),
+        @ApiResponse(responseCode = "400", description = "Too many IDs in one request")
+    })
+    public ResponseEntity<UserDeleteResultDTO> deleteUsers(
+            @Parameter(description = "Comma-separated user IDs", required = true) @RequestParam List<Long> ids) {
+        logger.info("Received request to delete {} users", ids.size());
+        UserDeleteResultDTO result = userService.deleteUsers(ids);
+        logger.info("Deleted {} of {} requested users", result.getDeleted(), result.getRequested());
+        RequestLogContext.put("requested", result.getRequested());
+        RequestLogContext.put("deleted", result.getDeleted());
+        return ResponseEntity.ok(result);
+    }
+
+    private ResponseEntity<UserLookupResultDTO> lookupUsers(List<Long> ids) {
+        UserLookupResultDTO result = userService.getUsersByIds(ids);
+        logger.info("Found {} users, {} missing", result.getUsers().size(), result.getMissing().size());
+        RequestLogContext.put("users", result.getUsers().size());
+        RequestLogContext.put("missing", result.getMissing().size());
+        return ResponseEntity.ok(result);
+    }
+
+    private void writeUsersAsNdjson(OutputStream outputStream) throws IOException {
+        // Rows are written as they arrive; the generator only buffers a few KB before
+        // handing bytes to the response, so the client sees data before the last row is read
+        ObjectWriter writer = objectMapper.writerFor(UserResponseDTO.class)
+            .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            long exported = userService.exportUsers(user -> {
+                try {
+                    writer.writeValue(generator, user);
+                    generator.writeRaw('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            logger.info("User export completed with {} users", exported);
+        } catch (UncheckedIOException e) {
+            logger.warn("User export aborted: {}", e.getMessage());
+            throw e.getCause();
+        }
+    }
+}
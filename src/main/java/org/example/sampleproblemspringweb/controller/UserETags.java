@@ -0,0 +1,82 @@
+package org.example.sampleproblemspringweb.controller;
+
+import org.example.sampleproblemspringweb.cache.UserResponseCache;
+import org.example.sampleproblemspringweb.exception.UserVersionMismatchException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * ETag handling shared by the synchronous and async user controllers: a user's tag is its
+ * version, the list's tag is the users table version.
+ */
+final class UserETags {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserETags.class);
+
+    private UserETags() {
+    }
+
+    static ResponseEntity<byte[]> userJson(UserResponseCache.Entry entry, String ifNoneMatch) {
+        String etag = userETag(entry.version());
+        if (ifNoneMatch != null && matchesETag(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_JSON)
+            .eTag(etag)
+            .body(entry.json());
+    }
+
+    static String userETag(Long version) {
+        return quote(String.valueOf(version));
+    }
+
+    static String quote(String tag) {
+        return "\"" + tag + "\"";
+    }
+
+    /**
+     * If-None-Match comparison: any listed tag equal to the current one, ignoring weakness, or "*"
+     */
+    static boolean matchesETag(String header, String etag) {
+        for (String candidate : header.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Version an update is conditional on, or null without If-Match or with "*"
+     */
+    static Long expectedVersion(Long id, String ifMatch) {
+        if (ifMatch == null || "*".equals(ifMatch.trim())) {
+            return null;
+        }
+        return parseUserETag(id, ifMatch);
+    }
+
+    /**
+     * If-Match uses strong comparison, so a weak or malformed tag can never match
+     */
+    private static Long parseUserETag(Long id, String ifMatch) {
+        String tag = ifMatch.trim();
+        if (tag.length() > 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            try {
+                return Long.valueOf(tag.substring(1, tag.length() - 1));
+            } catch (NumberFormatException e) {
+                // fall through to the mismatch below
+            }
+        }
+        logger.warn("Unusable If-Match header for user {}: {}", id, ifMatch);
+        throw new UserVersionMismatchException(id);
+    }
+}
@@ -0,0 +1,69 @@
+package org.example.sampleproblemspringweb.dto;
+
+import org.zalando.problem.StatusType;
+import org.zalando.problem.ThrowableProblem;
+
+import java.net.URI;
+
+/**
+ * Problem details for a single entry of a bulk operation, without the stack trace
+ * and causes a top-level problem response would carry.
+ */
+public class ProblemEntryDTO {
+    private URI type;
+    private String title;
+    private Integer status;
+    private String detail;
+
+    public ProblemEntryDTO() {
+    }
+
+    public ProblemEntryDTO(URI type, String title, Integer status, String detail) {
+        this.type = type;
+        this.title = title;
+        this.status = status;
+        this.detail = detail;
+    }
+
+    public static ProblemEntryDTO from(ThrowableProblem problem) {
+        StatusType status = problem.getStatus();
+        return new ProblemEntryDTO(
+            problem.getType(),
+            problem.getTitle(),
+            status != null ? status.getStatusCode() : null,
+            problem.getDetail()
+        );
+    }
+
+    public URI getType() {
+        return type;
+    }
+
+    public void setType(URI type) {
+        this.type = type;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public Integer getStatus() {
+        return status;
+    }
+
+    public void setStatus(Integer status) {
+        this.status = status;
+    }
+
+    public String getDetail() {
+        return detail;
+    }
+
+    public void setDetail(String detail) {
+        this.detail = detail;
+    }
+}
@@ -0,0 +1,58 @@
+package org.example.sampleproblemspringweb.dto;
+
+public class UserBatchItemDTO {
+    private int index;
+    private int status;
+    private UserResponseDTO user;
+    private ProblemEntryDTO problem;
+
+    public UserBatchItemDTO() {
+    }
+
+    public UserBatchItemDTO(int index, int status, UserResponseDTO user, ProblemEntryDTO problem) {
+        this.index = index;
+        this.status = status;
+        this.user = user;
+        this.problem = problem;
+    }
+
+    public static UserBatchItemDTO created(int index, UserResponseDTO user) {
+        return new UserBatchItemDTO(index, 201, user, null);
+    }
+
+    public static UserBatchItemDTO failed(int index, ProblemEntryDTO problem) {
+        return new UserBatchItemDTO(index, problem.getStatus(), null, problem);
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public void setStatus(int status) {
+        this.status = status;
+    }
+
+    public UserResponseDTO getUser() {
+        return user;
+    }
+
+    public void setUser(UserResponseDTO user) {
+        this.user = user;
+    }
+
+    public ProblemEntryDTO getProblem() {
+        return problem;
+    }
+
+    public void setProblem(ProblemEntryDTO problem) {
+        this.problem = problem;
+    }
+}
@@ -0,0 +1,42 @@
+package org.example.sampleproblemspringweb.dto;
+
+import java.util.List;
+
+public class UserBatchResultDTO {
+    private int created;
+    private int failed;
+    private List<UserBatchItemDTO> items;
+
+    public UserBatchResultDTO() {
+    }
+
+    public UserBatchResultDTO(int created, int failed, List<UserBatchItemDTO> items) {
+        this.created = created;
+        this.failed = failed;
+        this.items = items;
+    }
+
+    public int getCreated() {
+        return created;
+    }
+
+    public void setCreated(int created) {
+        this.created = created;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    public void setFailed(int failed) {
+        this.failed = failed;
+    }
+
+    public List<UserBatchItemDTO> getItems() {
+        return items;
+    }
+
+    public void setItems(List<UserBatchItemDTO> items) {
+        this.items = items;
+    }
+}
@@ -0,0 +1,30 @@
+package org.example.sampleproblemspringweb.dto;
+
+public class UserDeleteResultDTO {
+    private int requested;
+    private int deleted;
+
+    public UserDeleteResultDTO() {
+    }
+
+    public UserDeleteResultDTO(int requested, int deleted) {
+        this.requested = requested;
+        this.deleted = deleted;
+    }
+
+    public int getRequested() {
+        return requested;
+    }
+
+    public void setRequested(int requested) {
+        this.requested = requested;
+    }
+
+    public int getDeleted() {
+        return deleted;
+    }
+
+    public void setDeleted(int deleted) {
+        this.deleted = deleted;
+    }
+}
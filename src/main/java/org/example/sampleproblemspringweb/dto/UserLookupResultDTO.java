@@ -0,0 +1,32 @@
+package org.example.sampleproblemspringweb.dto;
+
+import java.util.List;
+
+public class UserLookupResultDTO {
+    private List<UserResponseDTO> users;
+    private List<Long> missing;
+
+    public UserLookupResultDTO() {
+    }
+
+    public UserLookupResultDTO(List<UserResponseDTO> users, List<Long> missing) {
+        this.users = users;
+        this.missing = missing;
+    }
+
+    public List<UserResponseDTO> getUsers() {
+        return users;
+    }
+
+    public void setUsers(List<UserResponseDTO> users) {
+        this.users = users;
+    }
+
+    public List<Long> getMissing() {
+        return missing;
+    }
+
+    public void setMissing(List<Long> missing) {
+        this.missing = missing;
+    }
+}
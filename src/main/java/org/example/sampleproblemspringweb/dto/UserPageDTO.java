@@ -0,0 +1,42 @@
+package org.example.sampleproblemspringweb.dto;
+
+import java.util.List;
+
+public class UserPageDTO {
+    private List<UserResponseDTO> content;
+    private int limit;
+    private Long nextCursor;
+
+    public UserPageDTO() {
+    }
+
+    public UserPageDTO(List<UserResponseDTO> content, int limit, Long nextCursor) {
+        this.content = content;
+        this.limit = limit;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<UserResponseDTO> getContent() {
+        return content;
+    }
+
+    public void setContent(List<UserResponseDTO> content) {
+        this.content = content;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public void setLimit(int limit) {
+        this.limit = limit;
+    }
+
+    public Long getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(Long nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
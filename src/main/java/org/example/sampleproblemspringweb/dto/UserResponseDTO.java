@@ -1,10 +1,16 @@
 package org.example.sampleproblemspringweb.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.example.sampleproblemspringweb.model.User;
+
 public class UserResponseDTO {
     private Long id;
     private String name;
     private String email;
     private String description;
+    // Sent as the ETag header rather than in the body
+    @JsonIgnore
+    private Long version;
 
     public UserResponseDTO() {
     }
@@ -16,6 +22,21 @@ public class UserResponseDTO {
         this.description = description;
     }
 
+    public UserResponseDTO(Long id, String name, String email, String description, Long version) {
+        this(id, name, email, description);
+        this.version = version;
+    }
+
+    public static UserResponseDTO from(User user) {
+        return new UserResponseDTO(
+            user.getId(),
+            user.getName(),
+            user.getEmail(),
+            user.getDescription(),
+            user.getVersion()
+        );
+    }
+
     public Long getId() {
         return id;
     }
@@ -47,5 +68,12 @@ public class UserResponseDTO {
     public void setDescription(String description) {
         this.description = description;
     }
-}
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+}
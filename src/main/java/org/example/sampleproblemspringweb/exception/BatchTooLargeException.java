@@ -0,0 +1,19 @@
+package org.example.sampleproblemspringweb.exception;
+
+import org.zalando.problem.Status;
+
+import java.net.URI;
+
+public class BatchTooLargeException extends ExpectedProblem {
+
+    private static final URI TYPE = URI.create("https://example.org/problems/batch-too-large");
+
+    public BatchTooLargeException(int size, int maxSize) {
+        super(
+            TYPE,
+            "Batch Too Large",
+            Status.BAD_REQUEST,
+            "Batch contains " + size + " entries, the maximum is " + maxSize
+        );
+    }
+}
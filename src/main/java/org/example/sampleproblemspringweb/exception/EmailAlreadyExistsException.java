@@ -1,11 +1,10 @@
 package org.example.sampleproblemspringweb.exception;
 
-import org.zalando.problem.AbstractThrowableProblem;
 import org.zalando.problem.Status;
 
 import java.net.URI;
 
-public class EmailAlreadyExistsException extends AbstractThrowableProblem {
+public class EmailAlreadyExistsException extends ExpectedProblem {
 
     private static final URI TYPE = URI.create("https://example.org/problems/email-already-exists");
 
@@ -14,8 +13,23 @@ public class EmailAlreadyExistsException extends AbstractThrowableProblem {
             TYPE,
             "Email Already Exists",
             Status.CONFLICT,
-            String.format("User with email %s already exists", email)
+            "User with email " + bounded(email) + " already exists"
         );
     }
-}
 
+    /**
+     * A batch insert hit the unique constraint; which entry is unknown once the flush failed
+     */
+    public static EmailAlreadyExistsException inBatch(int batchSize) {
+        return new EmailAlreadyExistsException(batchSize);
+    }
+
+    private EmailAlreadyExistsException(int batchSize) {
+        super(
+            TYPE,
+            "Email Already Exists",
+            Status.CONFLICT,
+            "A user with one of the emails in this batch of " + batchSize + " was created concurrently, nothing was created"
+        );
+    }
+}
@@ -0,0 +1,53 @@
+package org.example.sampleproblemspringweb.exception;
+
+import org.zalando.problem.AbstractThrowableProblem;
+import org.zalando.problem.StatusType;
+
+import java.net.URI;
+
+/**
+ * Base of problems thrown on routine paths (unknown user, taken email, stale version, ...).
+ * Where they are thrown is not interesting, so with stack traces turned off (see
+ * {@code app.problems.stack-traces}) they skip the stack walk, the most expensive part of
+ * creating an exception, and render without a trace.
+ */
+public abstract class ExpectedProblem extends AbstractThrowableProblem {
+
+    /**
+     * Longest client-supplied value repeated in a detail message
+     */
+    static final int MAX_DETAIL_VALUE_LENGTH = 256;
+
+    private static volatile boolean stackTraces = true;
+
+    protected ExpectedProblem(URI type, String title, StatusType status, String detail) {
+        super(type, title, status, detail);
+    }
+
+    /**
+     * Applied once at startup; exceptions created before keep what they captured
+     */
+    public static void setStackTraces(boolean enabled) {
+        stackTraces = enabled;
+    }
+
+    public static boolean isStackTraces() {
+        return stackTraces;
+    }
+
+    @Override
+    public Throwable fillInStackTrace() {
+        // Called from the Throwable constructor, so only static state is available here
+        return stackTraces ? super.fillInStackTrace() : this;
+    }
+
+    /**
+     * Keeps the problem body small when a client sends an oversized value
+     */
+    static String bounded(String value) {
+        if (value == null || value.length() <= MAX_DETAIL_VALUE_LENGTH) {
+            return value;
+        }
+        return value.substring(0, MAX_DETAIL_VALUE_LENGTH) + "...";
+    }
+}
@@ -0,0 +1,19 @@
+package org.example.sampleproblemspringweb.exception;
+
+import org.zalando.problem.Status;
+
+import java.net.URI;
+
+public class InvalidUserException extends ExpectedProblem {
+
+    private static final URI TYPE = URI.create("https://example.org/problems/invalid-user");
+
+    public InvalidUserException(String detail) {
+        super(
+            TYPE,
+            "Invalid User",
+            Status.BAD_REQUEST,
+            detail
+        );
+    }
+}
@@ -0,0 +1,19 @@
+package org.example.sampleproblemspringweb.exception;
+
+import org.zalando.problem.Status;
+
+import java.net.URI;
+
+public class ServerBusyException extends ExpectedProblem {
+
+    private static final URI TYPE = URI.create("https://example.org/problems/server-busy");
+
+    public ServerBusyException(String resource) {
+        super(
+            TYPE,
+            "Server Busy",
+            Status.SERVICE_UNAVAILABLE,
+            "Too many concurrent requests for " + resource + ", please retry later"
+        );
+    }
+}
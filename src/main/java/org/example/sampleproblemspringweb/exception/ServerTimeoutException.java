@@ -0,0 +1,20 @@
+package org.example.sampleproblemspringweb.exception;
+
+import org.zalando.problem.Status;
+
+import java.net.URI;
+import java.time.Duration;
+
+public class ServerTimeoutException extends ExpectedProblem {
+
+    private static final URI TYPE = URI.create("https://example.org/problems/server-timeout");
+
+    public ServerTimeoutException(String resource, Duration timeout) {
+        super(
+            TYPE,
+            "Server Timeout",
+            Status.SERVICE_UNAVAILABLE,
+            "No result for " + resource + " within " + timeout.toMillis() + "ms, please retry later"
+        );
+    }
+}
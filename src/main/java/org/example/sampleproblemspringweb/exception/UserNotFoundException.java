@@ -1,11 +1,10 @@
 package org.example.sampleproblemspringweb.exception;
 
-import org.zalando.problem.AbstractThrowableProblem;
 import org.zalando.problem.Status;
 
 import java.net.URI;
 
-public class UserNotFoundException extends AbstractThrowableProblem {
+public class UserNotFoundException extends ExpectedProblem {
 
     private static final URI TYPE = URI.create("https://example.org/problems/user-not-found");
 
@@ -14,8 +13,7 @@ public class UserNotFoundException extends AbstractThrowableProblem {
             TYPE,
             "User Not Found",
             Status.NOT_FOUND,
-            String.format("User with id %d not found", userId)
+            "User with id " + userId + " not found"
         );
     }
 }
-
@@ -0,0 +1,19 @@
+package org.example.sampleproblemspringweb.exception;
+
+import org.zalando.problem.Status;
+
+import java.net.URI;
+
+public class UserVersionMismatchException extends ExpectedProblem {
+
+    private static final URI TYPE = URI.create("https://example.org/problems/user-version-mismatch");
+
+    public UserVersionMismatchException(Long userId) {
+        super(
+            TYPE,
+            "User Version Mismatch",
+            Status.PRECONDITION_FAILED,
+            "User with id " + userId + " was modified since it was read, fetch it again and retry"
+        );
+    }
+}
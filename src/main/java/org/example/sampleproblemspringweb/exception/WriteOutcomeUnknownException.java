@@ -0,0 +1,20 @@
+package org.example.sampleproblemspringweb.exception;
+
+import org.zalando.problem.Status;
+
+import java.net.URI;
+import java.time.Duration;
+
+public class WriteOutcomeUnknownException extends ExpectedProblem {
+
+    private static final URI TYPE = URI.create("https://example.org/problems/write-outcome-unknown");
+
+    public WriteOutcomeUnknownException(String resource, Duration timeout) {
+        super(
+            TYPE,
+            "Write Outcome Unknown",
+            Status.GATEWAY_TIMEOUT,
+            "No result for " + resource + " within " + timeout.toMillis() + "ms, the write may still be applied"
+        );
+    }
+}
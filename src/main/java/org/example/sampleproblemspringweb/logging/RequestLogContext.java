@@ -0,0 +1,131 @@
+package org.example.sampleproblemspringweb.logging;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fields of the current request's wide event, gathered as the request flows through the
+ * controller, service and persistence layers and written once by {@link WideEventFilter}.
+ * All static methods are no-ops when no context is open on the calling thread, so callers
+ * need no checks when wide events are disabled.
+ * <p>
+ * Async requests continue on executor threads; {@link RequestLogContextTaskDecorator} carries
+ * the context over, so a context may be updated from more than one thread in turn.
+ */
+public final class RequestLogContext {
+
+    private static final ThreadLocal<RequestLogContext> CURRENT = new ThreadLocal<>();
+
+    private final Map<String, Object> fields = new LinkedHashMap<>();
+    private final Map<String, Long> layerNanos = new LinkedHashMap<>(4);
+    private int sqlStatements;
+
+    private RequestLogContext() {
+    }
+
+    static RequestLogContext open() {
+        RequestLogContext context = new RequestLogContext();
+        CURRENT.set(context);
+        return context;
+    }
+
+    static void close() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Context open on the calling thread, or null
+     */
+    static RequestLogContext current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Makes the context current on the calling thread and returns the one it replaces
+     */
+    static RequestLogContext attach(RequestLogContext context) {
+        RequestLogContext previous = CURRENT.get();
+        restore(context);
+        return previous;
+    }
+
+    static void restore(RequestLogContext context) {
+        if (context != null) {
+            CURRENT.set(context);
+        } else {
+            CURRENT.remove();
+        }
+    }
+
+    /**
+     * Add a field to the current request's event, replacing an earlier value
+     */
+    public static void put(String key, Object value) {
+        RequestLogContext context = CURRENT.get();
+        if (context != null) {
+            synchronized (context) {
+                context.fields.put(key, value);
+            }
+        }
+    }
+
+    /**
+     * Add a field unless an earlier layer already set it (e.g. the innermost exception)
+     */
+    public static void putIfAbsent(String key, Object value) {
+        RequestLogContext context = CURRENT.get();
+        if (context != null) {
+            synchronized (context) {
+                context.fields.putIfAbsent(key, value);
+            }
+        }
+    }
+
+    /**
+     * Add a field to the given context from a thread it is not current on
+     */
+    static void putIfAbsent(RequestLogContext context, String key, Object value) {
+        synchronized (context) {
+            context.fields.putIfAbsent(key, value);
+        }
+    }
+
+    /**
+     * Add the time spent in one call of the given layer ("controller", "service", ...)
+     */
+    public static void recordTiming(String layer, long elapsedNanos) {
+        RequestLogContext context = CURRENT.get();
+        if (context != null) {
+            synchronized (context) {
+                context.layerNanos.merge(layer, elapsedNanos, Long::sum);
+            }
+        }
+    }
+
+    /**
+     * Count one SQL statement sent to the database
+     */
+    public static void countSqlStatement() {
+        RequestLogContext context = CURRENT.get();
+        if (context != null) {
+            synchronized (context) {
+                context.sqlStatements++;
+            }
+        }
+    }
+
+    /**
+     * Gathered fields, per-layer timings in milliseconds and the SQL statement count
+     */
+    synchronized Map<String, Object> toEvent() {
+        Map<String, Object> event = new LinkedHashMap<>(fields);
+        layerNanos.forEach((layer, nanos) -> event.put(layer + "Ms", toMillis(nanos)));
+        event.put("sqlStatements", sqlStatements);
+        return event;
+    }
+
+    static double toMillis(long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
@@ -0,0 +1,29 @@
+package org.example.sampleproblemspringweb.logging;
+
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs tasks with the submitting thread's {@link RequestLogContext}, so timings, SQL counts and
+ * fields recorded by async handlers and streaming responses end up in the request's wide event.
+ * Picked up by the auto-configured {@code applicationTaskExecutor} and the async user API pools.
+ */
+@Component
+public class RequestLogContextTaskDecorator implements TaskDecorator {
+
+    @Override
+    public Runnable decorate(Runnable runnable) {
+        RequestLogContext context = RequestLogContext.current();
+        if (context == null) {
+            return runnable;
+        }
+        return () -> {
+            RequestLogContext previous = RequestLogContext.attach(context);
+            try {
+                runnable.run();
+            } finally {
+                RequestLogContext.restore(previous);
+            }
+        };
+    }
+}
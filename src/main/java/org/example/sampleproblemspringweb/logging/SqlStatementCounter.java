@@ -0,0 +1,17 @@
+package org.example.sampleproblemspringweb.logging;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts the SQL statements Hibernate prepares for the current request's wide event.
+ * Registered through {@code hibernate.session_factory.statement_inspector} by the
+ * wide-events profile; the SQL itself is passed through unchanged.
+ */
+public class SqlStatementCounter implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        RequestLogContext.countSqlStatement();
+        return sql;
+    }
+}
@@ -0,0 +1,149 @@
+package org.example.sampleproblemspringweb.logging;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Writes one structured JSON line per request ("wide event") with the endpoint, path
+ * variables, status, total and per-layer timings, SQL statement count and any fields added
+ * through {@link RequestLogContext}, in place of the per-layer log lines.
+ * <p>
+ * For async requests (async controllers, streaming exports) the event is written when the
+ * request completes, with the final status; the context is carried to the worker threads by
+ * {@link RequestLogContextTaskDecorator} and re-attached on the async dispatch.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnProperty(prefix = "app.logging.wide-events", name = "enabled", havingValue = "true")
+public class WideEventFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(WideEventFilter.class);
+    private static final String CONTEXT_ATTRIBUTE = WideEventFilter.class.getName() + ".context";
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        // Async dispatches run with the context of the initial request, see below
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (isAsyncDispatch(request)) {
+            RequestLogContext previous = RequestLogContext.attach((RequestLogContext) request.getAttribute(CONTEXT_ATTRIBUTE));
+            try {
+                filterChain.doFilter(request, response);
+            } finally {
+                RequestLogContext.restore(previous);
+            }
+            return;
+        }
+
+        RequestLogContext context = RequestLogContext.open();
+        long startNanos = System.nanoTime();
+        boolean async = false;
+        try {
+            filterChain.doFilter(request, response);
+            async = request.isAsyncStarted();
+            if (async) {
+                request.setAttribute(CONTEXT_ATTRIBUTE, context);
+                request.getAsyncContext().addListener(new CompletionListener(request, response, context, startNanos));
+            }
+        } finally {
+            RequestLogContext.close();
+            if (!async) {
+                emit(buildEvent(request, response, context, System.nanoTime() - startNanos));
+            }
+        }
+    }
+
+    void emit(Map<String, Object> event) {
+        if (logger.isInfoEnabled()) {
+            logger.info(toJson(event));
+        }
+    }
+
+    Map<String, Object> buildEvent(HttpServletRequest request, HttpServletResponse response,
+                                   RequestLogContext context, long elapsedNanos) {
+        Map<String, Object> event = new LinkedHashMap<>();
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        event.put("endpoint", request.getMethod() + " " + (pattern != null ? pattern : request.getRequestURI()));
+        Object pathVariables = request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        if (pathVariables instanceof Map<?, ?> variables) {
+            variables.forEach((name, value) -> event.put(String.valueOf(name), value));
+        }
+        event.put("status", response.getStatus());
+        event.put("durationMs", RequestLogContext.toMillis(elapsedNanos));
+        event.putAll(context.toEvent());
+        return event;
+    }
+
+    /**
+     * Writes the event of an async request once it has completed, timed out or failed
+     */
+    private class CompletionListener implements AsyncListener {
+
+        private final HttpServletRequest request;
+        private final HttpServletResponse response;
+        private final RequestLogContext context;
+        private final long startNanos;
+
+        CompletionListener(HttpServletRequest request, HttpServletResponse response,
+                           RequestLogContext context, long startNanos) {
+            this.request = request;
+            this.response = response;
+            this.context = context;
+            this.startNanos = startNanos;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            Map<String, Object> wideEvent = buildEvent(request, response, context, System.nanoTime() - startNanos);
+            wideEvent.put("async", true);
+            emit(wideEvent);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            RequestLogContext.putIfAbsent(context, "asyncTimeout", true);
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            Throwable error = event.getThrowable();
+            RequestLogContext.putIfAbsent(context, "asyncError", error != null ? error.getClass().getSimpleName() : "unknown");
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // The listener stays registered for the whole request
+        }
+    }
+
+    private String toJson(Map<String, Object> event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            return event.toString();
+        }
+    }
+}
@@ -6,11 +6,16 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 
 @Entity
-@Table(name = "users")
+@Table(name = "users", uniqueConstraints = @UniqueConstraint(name = User.EMAIL_CONSTRAINT, columnNames = "email"))
 public class User {
 
+    public static final String EMAIL_CONSTRAINT = "uk_users_email";
+
+    // A pooled sequence hands out ids in blocks of 50 without a round trip per insert,
+    // and unlike IDENTITY it lets Hibernate batch the INSERT statements
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank
@@ -20,12 +25,16 @@ public class User {
 
     @NotBlank
     @Email
-    @Column(nullable = false, unique = true)
+    @Column(nullable = false)
     private String email;
 
     @Size(min = 5, max = 100)
     private String description;
 
+    // Bumped by Hibernate on every update and checked in its WHERE clause; also the user's ETag
+    @Version
+    private Long version;
+
     public User() {
     }
 
@@ -66,5 +75,13 @@ public class User {
     public void setDescription(String description) {
         this.description = description;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
 
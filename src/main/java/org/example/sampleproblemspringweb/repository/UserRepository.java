@@ -1,14 +1,98 @@
 package org.example.sampleproblemspringweb.repository;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.example.sampleproblemspringweb.dto.UserResponseDTO;
 import org.example.sampleproblemspringweb.model.User;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
+
+    /**
+     * Read paths select straight into {@link UserResponseDTO}, so rows are never hydrated into
+     * managed entities and skip dirty-checking snapshots and persistence context bookkeeping.
+     */
+    String RESPONSE_PROJECTION = "select new org.example.sampleproblemspringweb.dto.UserResponseDTO("
+        + "u.id, u.name, u.email, u.description, u.version) from User u ";
+
     Optional<User> findByEmail(String email);
     boolean existsByEmail(String email);
-}
 
+    @Query("select u.email from User u where u.email in :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    /**
+     * Single DELETE statement; unlike {@code deleteById} the entity is not loaded first.
+     * Returns the number of removed rows so a missing id needs no separate existence check.
+     */
+    @Modifying
+    @Query("delete from User u where u.id = :id")
+    int deleteUserById(@Param("id") Long id);
+
+    @Modifying
+    @Query("delete from User u where u.id in :ids")
+    int deleteUsersByIds(@Param("ids") Collection<Long> ids);
+
+    @Query(RESPONSE_PROJECTION + "where u.id = :id")
+    Optional<UserResponseDTO> findResponseById(@Param("id") Long id);
+
+    /**
+     * Row lock held until the transaction ends, so unconditional updates of one user apply one
+     * after the other instead of failing the version check.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select u from User u where u.id = :id")
+    Optional<User> findByIdForUpdate(@Param("id") Long id);
+
+    @Query(RESPONSE_PROJECTION + "order by u.id")
+    List<UserResponseDTO> findAllResponses();
+
+    /**
+     * One IN-list query for many ids; ids without a row are simply absent from the result.
+     */
+    @Query(RESPONSE_PROJECTION + "where u.id in :ids")
+    List<UserResponseDTO> findResponsesByIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Only the version column, enough to answer a conditional GET without reading the row.
+     */
+    @Query("select u.version from User u where u.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    /**
+     * Keyset page: walks the primary key index from the cursor, so the cost of a page
+     * does not depend on how deep the client has paged.
+     */
+    @Query(RESPONSE_PROJECTION + "where u.id > :after order by u.id")
+    List<UserResponseDTO> findResponsesAfter(@Param("after") Long after, Limit limit);
+
+    /**
+     * Forward-only cursor over the whole table for exports. The stream must be consumed
+     * and closed inside a transaction.
+     */
+    @Query(RESPONSE_PROJECTION + "order by u.id")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<UserResponseDTO> streamAllForExport();
+
+    /**
+     * Every email, streamed to build the in-memory email index. Must be consumed and closed
+     * inside a transaction.
+     */
+    @Query("select u.email from User u")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<String> streamAllEmails();
+}
@@ -1,18 +1,51 @@
 package org.example.sampleproblemspringweb.service;
 
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.example.sampleproblemspringweb.annotation.Coalesced;
+import org.example.sampleproblemspringweb.annotation.Streaming;
+import org.example.sampleproblemspringweb.cache.EmailIndex;
+import org.example.sampleproblemspringweb.cache.MissingUserCache;
+import org.example.sampleproblemspringweb.cache.UserResponseCache;
+import org.example.sampleproblemspringweb.config.UserProperties;
+import org.example.sampleproblemspringweb.dto.ProblemEntryDTO;
+import org.example.sampleproblemspringweb.dto.UserBatchItemDTO;
+import org.example.sampleproblemspringweb.dto.UserBatchResultDTO;
 import org.example.sampleproblemspringweb.dto.UserDTO;
+import org.example.sampleproblemspringweb.dto.UserDeleteResultDTO;
+import org.example.sampleproblemspringweb.dto.UserLookupResultDTO;
+import org.example.sampleproblemspringweb.dto.UserPageDTO;
 import org.example.sampleproblemspringweb.dto.UserResponseDTO;
+import org.example.sampleproblemspringweb.exception.BatchTooLargeException;
 import org.example.sampleproblemspringweb.exception.EmailAlreadyExistsException;
+import org.example.sampleproblemspringweb.exception.InvalidUserException;
 import org.example.sampleproblemspringweb.exception.UserNotFoundException;
+import org.example.sampleproblemspringweb.exception.UserVersionMismatchException;
 import org.example.sampleproblemspringweb.model.User;
 import org.example.sampleproblemspringweb.repository.UserRepository;
+import org.hibernate.exception.ConstraintViolationException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
@@ -20,64 +53,257 @@ public class UserService {
 
     private static final Logger logger = LoggerFactory.getLogger(UserService.class);
     private final UserRepository userRepository;
+    private final UserProperties userProperties;
+    private final Validator validator;
+    private final UserTableVersion tableVersion;
+    private final UserResponseCache responseCache;
+    private final MissingUserCache missingUsers;
+    private final EmailIndex emailIndex;
 
-    public UserService(UserRepository userRepository) {
+    public UserService(UserRepository userRepository, UserProperties userProperties, Validator validator,
+                       UserTableVersion tableVersion, UserResponseCache responseCache, MissingUserCache missingUsers,
+                       EmailIndex emailIndex) {
         this.userRepository = userRepository;
+        this.userProperties = userProperties;
+        this.validator = validator;
+        this.tableVersion = tableVersion;
+        this.responseCache = responseCache;
+        this.missingUsers = missingUsers;
+        this.emailIndex = emailIndex;
         logger.info("UserService initialized");
     }
 
     public UserResponseDTO createUser(UserDTO userDTO) {
         logger.debug("Creating user with email: {}", userDTO.getEmail());
         
-        if (userRepository.existsByEmail(userDTO.getEmail())) {
+        if (checksEmailByQuery() && emailExists(userDTO.getEmail())) {
             logger.warn("Attempted to create user with existing email: {}", userDTO.getEmail());
             throw new EmailAlreadyExistsException(userDTO.getEmail());
         }
 
         User user = new User(userDTO.getName(), userDTO.getEmail(), userDTO.getDescription());
-        User savedUser = userRepository.save(user);
+        emailIndex.add(user.getEmail());
+        User savedUser = saveEnforcingUniqueEmail(user);
+        tableVersion.markChanged();
+        missingUsers.clear(savedUser.getId());
         logger.info("User created successfully with ID: {} and email: {}", 
             savedUser.getId(), savedUser.getEmail());
         return mapToResponseDTO(savedUser);
     }
 
-    @Transactional(readOnly = true)
+    public UserBatchResultDTO createUsers(List<UserDTO> userDTOs) {
+        int maxSize = userProperties.getBatch().getMaxSize();
+        if (userDTOs.size() > maxSize) {
+            logger.warn("Rejected batch of {} users, maximum is {}", userDTOs.size(), maxSize);
+            throw new BatchTooLargeException(userDTOs.size(), maxSize);
+        }
+        logger.debug("Creating batch of {} users", userDTOs.size());
+
+        UserBatchItemDTO[] items = new UserBatchItemDTO[userDTOs.size()];
+        Map<Integer, UserDTO> candidates = new LinkedHashMap<>();
+        for (int i = 0; i < userDTOs.size(); i++) {
+            UserDTO userDTO = userDTOs.get(i);
+            String violations = describeViolations(userDTO);
+            if (violations != null) {
+                items[i] = UserBatchItemDTO.failed(i, ProblemEntryDTO.from(new InvalidUserException(violations)));
+            } else {
+                candidates.put(i, userDTO);
+            }
+        }
+
+        // One query for the whole batch instead of an existsByEmail round trip per entry,
+        // limited to the emails the index cannot rule out
+        Set<String> takenEmails = new HashSet<>();
+        Set<String> maybeTaken = candidates.values().stream()
+            .map(UserDTO::getEmail)
+            .filter(emailIndex::mightContain)
+            .collect(Collectors.toSet());
+        if (!maybeTaken.isEmpty()) {
+            takenEmails.addAll(userRepository.findExistingEmails(maybeTaken));
+            emailIndex.recordFalsePositives(maybeTaken.size() - takenEmails.size());
+        }
+
+        Map<Integer, User> pending = new LinkedHashMap<>();
+        for (Map.Entry<Integer, UserDTO> candidate : candidates.entrySet()) {
+            UserDTO userDTO = candidate.getValue();
+            // add() also rejects an email repeated later in the same batch
+            if (!takenEmails.add(userDTO.getEmail())) {
+                items[candidate.getKey()] = UserBatchItemDTO.failed(candidate.getKey(),
+                    ProblemEntryDTO.from(new EmailAlreadyExistsException(userDTO.getEmail())));
+            } else {
+                pending.put(candidate.getKey(), new User(userDTO.getName(), userDTO.getEmail(), userDTO.getDescription()));
+            }
+        }
+
+        emailIndex.addAll(pending.values().stream().map(User::getEmail).toList());
+        // Ids come from the pooled sequence, so the INSERTs are sent as JDBC batches on flush
+        userRepository.saveAll(pending.values());
+        flushEnforcingUniqueEmail(pending.size());
+        if (!pending.isEmpty()) {
+            tableVersion.markChanged();
+            missingUsers.clearAll(pending.values().stream().map(User::getId).toList());
+        }
+        pending.forEach((index, user) -> items[index] = UserBatchItemDTO.created(index, mapToResponseDTO(user)));
+
+        int created = pending.size();
+        int failed = items.length - created;
+        logger.info("Batch create finished: {} created, {} failed", created, failed);
+        return new UserBatchResultDTO(created, failed, Arrays.asList(items));
+    }
+
+    /**
+     * Runs without a transaction of its own, so a known missing id is answered without
+     * borrowing a connection; the lookup is a single query either way.
+     */
+    @Coalesced
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public UserResponseDTO getUserById(Long id) {
         logger.debug("Fetching user with ID: {}", id);
-        User user = userRepository.findById(id)
+        if (missingUsers.isMissing(id)) {
+            logger.debug("User with ID: {} is known to be missing", id);
+            throw new UserNotFoundException(id);
+        }
+        long generation = missingUsers.generation();
+        UserResponseDTO user = userRepository.findResponseById(id)
             .orElseThrow(() -> {
+                missingUsers.markMissing(id, generation);
                 logger.warn("User not found with ID: {}", id);
                 return new UserNotFoundException(id);
             });
         logger.debug("User found with ID: {} and email: {}", user.getId(), user.getEmail());
-        return mapToResponseDTO(user);
+        return user;
+    }
+
+    /**
+     * Current version of the user, for answering a conditional GET without loading the row
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public Optional<Long> getUserVersion(Long id) {
+        if (missingUsers.isMissing(id)) {
+            return Optional.empty();
+        }
+        long generation = missingUsers.generation();
+        Optional<Long> version = userRepository.findVersionById(id);
+        if (version.isEmpty()) {
+            missingUsers.markMissing(id, generation);
+        }
+        return version;
+    }
+
+    /**
+     * Changes whenever a write to the users table commits, the ETag of the full user list
+     */
+    public String getUsersVersion() {
+        return tableVersion.current();
+    }
+
+    /**
+     * Resolves many ids with one IN-list query per chunk; users come back in request order and
+     * ids without a user are listed as missing instead of failing the call.
+     */
+    @Transactional(readOnly = true)
+    public UserLookupResultDTO getUsersByIds(List<Long> ids) {
+        int maxSize = userProperties.getBatch().getMaxSize();
+        if (ids.size() > maxSize) {
+            logger.warn("Rejected lookup of {} users, maximum is {}", ids.size(), maxSize);
+            throw new BatchTooLargeException(ids.size(), maxSize);
+        }
+
+        Set<Long> distinctIds = new LinkedHashSet<>(ids);
+        distinctIds.remove(null);
+        logger.debug("Fetching {} users by ID", distinctIds.size());
+
+        List<Long> idList = new ArrayList<>(distinctIds);
+        int chunkSize = Math.max(1, userProperties.getBatch().getQueryChunkSize());
+        Map<Long, UserResponseDTO> found = new HashMap<>();
+        for (int from = 0; from < idList.size(); from += chunkSize) {
+            List<Long> chunk = idList.subList(from, Math.min(from + chunkSize, idList.size()));
+            for (UserResponseDTO user : userRepository.findResponsesByIds(chunk)) {
+                found.put(user.getId(), user);
+            }
+        }
+
+        List<UserResponseDTO> users = new ArrayList<>(found.size());
+        List<Long> missing = new ArrayList<>();
+        for (Long id : idList) {
+            UserResponseDTO user = found.get(id);
+            if (user != null) {
+                users.add(user);
+            } else {
+                missing.add(id);
+            }
+        }
+        logger.info("Retrieved {} of {} requested users", users.size(), idList.size());
+        return new UserLookupResultDTO(users, missing);
     }
 
+    @Coalesced
     @Transactional(readOnly = true)
-    public List<UserResponseDTO> getAllUsers() {
-        logger.debug("Fetching all users");
-        List<UserResponseDTO> users = userRepository.findAll().stream()
-            .map(this::mapToResponseDTO)
-            .collect(Collectors.toList());
-        logger.info("Retrieved {} users from database", users.size());
-        return users;
+    public UserPageDTO getUsersPage(Long after, Integer limit) {
+        int pageSize = resolvePageSize(limit);
+        long cursor = after != null ? after : 0L;
+        logger.debug("Fetching users page after ID: {} with limit: {}", cursor, pageSize);
+
+        // Fetch one extra row to learn whether another page exists without a count query
+        List<UserResponseDTO> rows = userRepository.findResponsesAfter(cursor, Limit.of(pageSize + 1));
+        boolean hasNext = rows.size() > pageSize;
+        List<UserResponseDTO> content = hasNext ? rows.subList(0, pageSize) : rows;
+        Long nextCursor = hasNext ? content.get(content.size() - 1).getId() : null;
+
+        logger.debug("Retrieved {} users after ID: {}, next cursor: {}", content.size(), cursor, nextCursor);
+        return new UserPageDTO(content, pageSize, nextCursor);
+    }
+
+    @Streaming
+    @Transactional(readOnly = true)
+    public long exportUsers(Consumer<UserResponseDTO> sink) {
+        logger.debug("Exporting all users");
+        long exported = 0;
+        try (Stream<UserResponseDTO> users = userRepository.streamAllForExport()) {
+            for (UserResponseDTO user : (Iterable<UserResponseDTO>) users::iterator) {
+                sink.accept(user);
+                exported++;
+            }
+        }
+        logger.info("Exported {} users", exported);
+        return exported;
     }
 
     public UserResponseDTO updateUser(Long id, UserDTO userDTO) {
+        return updateUser(id, userDTO, null);
+    }
+
+    /**
+     * Updates the user only if it is still at {@code expectedVersion} (from an If-Match header).
+     * Without a version the last writer wins: the row is locked while it is read, so concurrent
+     * updates wait for each other and never fail a precondition the client did not send.
+     */
+    public UserResponseDTO updateUser(Long id, UserDTO userDTO, Long expectedVersion) {
         logger.debug("Updating user with ID: {}", id);
         
-        User user = userRepository.findById(id)
+        Optional<User> found = expectedVersion == null
+            ? userRepository.findByIdForUpdate(id)
+            : userRepository.findById(id);
+        User user = found
             .orElseThrow(() -> {
                 logger.warn("User not found for update with ID: {}", id);
                 return new UserNotFoundException(id);
             });
 
+        if (expectedVersion != null && !expectedVersion.equals(user.getVersion())) {
+            logger.warn("Rejected update of user {} at version {}, client expected {}", id, user.getVersion(), expectedVersion);
+            throw new UserVersionMismatchException(id);
+        }
+
         // Check if email is being changed and if new email already exists
-        if (!user.getEmail().equals(userDTO.getEmail()) && 
-            userRepository.existsByEmail(userDTO.getEmail())) {
+        boolean emailChanged = !user.getEmail().equals(userDTO.getEmail());
+        if (checksEmailByQuery() && emailChanged && emailExists(userDTO.getEmail())) {
             logger.warn("Attempted to update user {} with existing email: {}", id, userDTO.getEmail());
             throw new EmailAlreadyExistsException(userDTO.getEmail());
         }
+        if (emailChanged) {
+            emailIndex.add(userDTO.getEmail());
+        }
 
         logger.debug("Updating user ID: {} - Name: {} -> {}, Email: {} -> {}", 
             id, user.getName(), userDTO.getName(), user.getEmail(), userDTO.getEmail());
@@ -86,7 +312,19 @@ public class UserService {
         user.setEmail(userDTO.getEmail());
         user.setDescription(userDTO.getDescription());
         
-        User updatedUser = userRepository.save(user);
+        User updatedUser;
+        try {
+            updatedUser = saveEnforcingUniqueEmail(user);
+        } catch (ObjectOptimisticLockingFailureException e) {
+            // Only conditional updates read without the row lock and can lose to a concurrent one
+            logger.warn("User {} was updated concurrently after version {} was checked", id, expectedVersion);
+            throw new UserVersionMismatchException(id);
+        }
+        tableVersion.markChanged();
+        responseCache.invalidate(id);
+        if (emailChanged) {
+            emailIndex.markStale(1);
+        }
         logger.info("User updated successfully with ID: {} and email: {}", 
             updatedUser.getId(), updatedUser.getEmail());
         return mapToResponseDTO(updatedUser);
@@ -95,22 +333,120 @@ public class UserService {
     public void deleteUser(Long id) {
         logger.debug("Deleting user with ID: {}", id);
         
-        if (!userRepository.existsById(id)) {
+        if (userRepository.deleteUserById(id) == 0) {
             logger.warn("User not found for deletion with ID: {}", id);
             throw new UserNotFoundException(id);
         }
+        tableVersion.markChanged();
+        responseCache.invalidate(id);
+        emailIndex.markStale(1);
         
-        userRepository.deleteById(id);
         logger.info("User deleted successfully with ID: {}", id);
     }
 
+    public UserDeleteResultDTO deleteUsers(List<Long> ids) {
+        int maxSize = userProperties.getBatch().getMaxSize();
+        if (ids.size() > maxSize) {
+            logger.warn("Rejected bulk delete of {} users, maximum is {}", ids.size(), maxSize);
+            throw new BatchTooLargeException(ids.size(), maxSize);
+        }
+
+        Set<Long> distinctIds = new LinkedHashSet<>(ids);
+        distinctIds.remove(null);
+        logger.debug("Deleting {} users", distinctIds.size());
+
+        int deleted = distinctIds.isEmpty() ? 0 : userRepository.deleteUsersByIds(distinctIds);
+        if (deleted > 0) {
+            tableVersion.markChanged();
+            responseCache.invalidateAll(distinctIds);
+            emailIndex.markStale(deleted);
+        }
+        logger.info("Bulk delete removed {} of {} requested users", deleted, distinctIds.size());
+        return new UserDeleteResultDTO(distinctIds.size(), deleted);
+    }
+
+    /**
+     * Asks the database only if the email index cannot rule the email out
+     */
+    private boolean emailExists(String email) {
+        if (!emailIndex.mightContain(email)) {
+            return false;
+        }
+        boolean exists = userRepository.existsByEmail(email);
+        if (!exists) {
+            emailIndex.recordFalsePositives(1);
+        }
+        return exists;
+    }
+
+    private boolean checksEmailByQuery() {
+        return userProperties.getCreate().getUniquenessCheck() == UserProperties.UniquenessCheck.QUERY;
+    }
+
+    /**
+     * Flushes the write immediately so a duplicate email surfaces here, whichever uniqueness
+     * mode is active, and is reported as a 409 problem instead of failing at commit.
+     */
+    private User saveEnforcingUniqueEmail(User user) {
+        try {
+            return userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            if (!isDuplicateEmail(e)) {
+                throw e;
+            }
+            logger.warn("Unique constraint rejected email: {}", user.getEmail());
+            throw new EmailAlreadyExistsException(user.getEmail());
+        }
+    }
+
+    /**
+     * A user inserted concurrently after findExistingEmails fails the whole flush; reported as
+     * a 409 for the batch instead of a 500, as the failed flush cannot tell which entry clashed.
+     */
+    private void flushEnforcingUniqueEmail(int batchSize) {
+        try {
+            userRepository.flush();
+        } catch (DataIntegrityViolationException e) {
+            if (!isDuplicateEmail(e)) {
+                throw e;
+            }
+            logger.warn("Unique constraint rejected a batch of {} users", batchSize);
+            throw EmailAlreadyExistsException.inBatch(batchSize);
+        }
+    }
+
+    private static boolean isDuplicateEmail(DataIntegrityViolationException e) {
+        if (e.getCause() instanceof ConstraintViolationException violation) {
+            String constraintName = violation.getConstraintName();
+            return constraintName != null && constraintName.toLowerCase().contains(User.EMAIL_CONSTRAINT);
+        }
+        return false;
+    }
+
+    private String describeViolations(UserDTO userDTO) {
+        if (userDTO == null) {
+            return "Entry must not be null";
+        }
+        Set<ConstraintViolation<UserDTO>> violations = validator.validate(userDTO);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+            .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+            .sorted()
+            .collect(Collectors.joining("; "));
+    }
+
+    private int resolvePageSize(Integer limit) {
+        UserProperties.Page page = userProperties.getPage();
+        if (limit == null) {
+            return page.getDefaultLimit();
+        }
+        return Math.max(1, Math.min(limit, page.getMaxLimit()));
+    }
+
     private UserResponseDTO mapToResponseDTO(User user) {
-        return new UserResponseDTO(
-            user.getId(),
-            user.getName(),
-            user.getEmail(),
-            user.getDescription()
-        );
+        return UserResponseDTO.from(user);
     }
 }
 
@@ -0,0 +1,37 @@
+package org.example.sampleproblemspringweb.service;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Change counter of the users table, the ETag of the pages of {@code GET /api/users}. Every write
+ * in {@link UserService} bumps it once its transaction has committed, so a reader that sees the
+ * new value also sees the new rows; a rolled back write leaves it alone. The start time keeps
+ * values from an earlier run of the application from matching.
+ */
+@Component
+public class UserTableVersion {
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong changes = new AtomicLong();
+
+    public String current() {
+        return epoch + "-" + changes.get();
+    }
+
+    void markChanged() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            changes.incrementAndGet();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                changes.incrementAndGet();
+            }
+        });
+    }
+}
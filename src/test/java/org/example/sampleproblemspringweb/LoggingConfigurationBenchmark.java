@@ -0,0 +1,75 @@
+package org.example.sampleproblemspringweb;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Request throughput and latency distribution (p99 in the SampleTime results) of
+ * {@code GET /api/users/{id}} under concurrent load, with the default synchronous Log4j2
+ * configuration and with the {@code async-logging} profile. Each configuration runs in its
+ * own fork, since Log4j2 settings are per JVM.
+ * <p>
+ * Console output is discarded in both runs so the file appenders, which is where the two
+ * configurations differ, dominate the logging cost. The serialized user cache and read coalescing
+ * are turned off, otherwise nearly every request would be answered from the cache without
+ * passing the service layer and its log lines.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(16)
+@Fork(1)
+public class LoggingConfigurationBenchmark {
+
+    @Param({"sync", "async-logging"})
+    private String logging;
+
+    private PrintStream originalOut;
+    private ConfigurableApplicationContext context;
+    private HttpClient httpClient;
+    private HttpRequest getUser;
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        originalOut = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(SampleProblemSpringWebApplication.class)
+            .properties(
+                "server.port=0",
+                "spring.datasource.url=jdbc:h2:mem:logging-benchmark",
+                "app.users.response-cache.enabled=false",
+                "app.data-access.coalescing.enabled=false");
+        if (!"sync".equals(logging)) {
+            builder.profiles(logging);
+        }
+        context = builder.run();
+
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        httpClient = HttpClient.newHttpClient();
+        getUser = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/users/1")).GET().build();
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+        System.setOut(originalOut);
+    }
+
+    @Benchmark
+    public int getUserById() throws Exception {
+        return httpClient.send(getUser, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
@@ -0,0 +1,312 @@
+package org.example.sampleproblemspringweb;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.example.sampleproblemspringweb.dto.UserBatchItemDTO;
+import org.example.sampleproblemspringweb.dto.UserDTO;
+import org.example.sampleproblemspringweb.service.UserService;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drives a weighted create/get/list/update/delete mix against {@code /api/users} of a running
+ * application, with a closed-loop and an open-loop generator, and records latencies in
+ * HdrHistogram histograms. Shared by the {@code load}-tagged tests.
+ * <ul>
+ *   <li>closed loop - each client thread sends the next request when the previous one completed;
+ *   this measures maximum throughput, but its latencies hide queueing because slow responses also
+ *   slow down the request rate (coordinated omission)</li>
+ *   <li>open loop - requests are scheduled at a fixed rate regardless of responses, and latency is
+ *   measured from the scheduled start, so stalls show up in the percentiles</li>
+ * </ul>
+ */
+final class UserApiLoadGenerator implements AutoCloseable {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(1);
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final int port;
+    private final LoadSettings settings;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Queue<Long> createdIds = new ConcurrentLinkedQueue<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final List<Long> seededIds = new ArrayList<>();
+    private final List<String> seededEmails = new ArrayList<>();
+    private final ExecutorService responseExecutor;
+    private final HttpClient httpClient;
+
+    private UserApiLoadGenerator(int port, LoadSettings settings) {
+        this.port = port;
+        this.settings = settings;
+        this.responseExecutor = Executors.newFixedThreadPool(settings.clients);
+        this.httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .executor(responseExecutor)
+            .build();
+    }
+
+    /**
+     * Seed {@code settings.users} users through the service and return a generator for the given port
+     */
+    static UserApiLoadGenerator seed(int port, UserService userService, LoadSettings settings) {
+        UserApiLoadGenerator generator = new UserApiLoadGenerator(port, settings);
+        int maxBatch = 1000;
+        for (int offset = 0; offset < settings.users; offset += maxBatch) {
+            List<UserDTO> batch = new ArrayList<>();
+            for (int i = offset; i < Math.min(offset + maxBatch, settings.users); i++) {
+                batch.add(new UserDTO("Seed User " + i, "seed-" + i + "@example.com", "Seeded by the load test"));
+            }
+            for (UserBatchItemDTO item : userService.createUsers(batch).getItems()) {
+                generator.seededIds.add(item.getUser().getId());
+                generator.seededEmails.add(item.getUser().getEmail());
+            }
+        }
+        return generator;
+    }
+
+    LoadResult runClosedLoop(Duration duration, int clientCount) throws InterruptedException {
+        LoadResult result = new LoadResult();
+        long endNanos = System.nanoTime() + duration.toNanos();
+        List<Thread> clients = new ArrayList<>();
+        for (int c = 0; c < clientCount; c++) {
+            Thread client = new Thread(() -> {
+                while (System.nanoTime() < endNanos) {
+                    Operation operation = settings.pickOperation();
+                    HttpRequest request = buildRequest(operation);
+                    long startNanos = System.nanoTime();
+                    try {
+                        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+                        result.record(operation, System.nanoTime() - startNanos, handle(operation, response));
+                    } catch (IOException e) {
+                        result.record(operation, System.nanoTime() - startNanos, false);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+            }, "load-client-" + c);
+            clients.add(client);
+            client.start();
+        }
+        long startNanos = System.nanoTime();
+        for (Thread client : clients) {
+            client.join();
+        }
+        result.elapsedNanos = System.nanoTime() - startNanos;
+        return result;
+    }
+
+    LoadResult runOpenLoop(Duration duration, int rate) {
+        LoadResult result = new LoadResult();
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / rate;
+        long startNanos = System.nanoTime();
+        long endNanos = startNanos + duration.toNanos();
+        List<CompletableFuture<?>> inFlight = new ArrayList<>();
+        for (long intendedNanos = startNanos; intendedNanos < endNanos; intendedNanos += intervalNanos) {
+            long waitNanos = intendedNanos - System.nanoTime();
+            if (waitNanos > 0) {
+                LockSupport.parkNanos(waitNanos);
+            }
+            // Latency counts from the scheduled start, so a stalled server also delays the
+            // requests queued behind it instead of silently lowering the request rate
+            long scheduledNanos = intendedNanos;
+            Operation operation = settings.pickOperation();
+            inFlight.add(httpClient.sendAsync(buildRequest(operation), HttpResponse.BodyHandlers.ofString())
+                .whenComplete((response, error) -> result.record(operation, System.nanoTime() - scheduledNanos,
+                    error == null && handle(operation, response))));
+        }
+        CompletableFuture.allOf(inFlight.toArray(new CompletableFuture<?>[0]))
+            .exceptionally(error -> null)
+            .join();
+        result.elapsedNanos = System.nanoTime() - startNanos;
+        return result;
+    }
+
+    private HttpRequest buildRequest(Operation operation) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int seedIndex = random.nextInt(seededIds.size());
+        long seedId = seededIds.get(seedIndex);
+        switch (operation) {
+            case CREATE:
+                long n = sequence.incrementAndGet();
+                return json("POST", "/api/users", new UserDTO("Load User " + n, "load-" + n + "@example.com", "Created by the load test"));
+            case UPDATE:
+                return json("PUT", "/api/users/" + seedId,
+                    new UserDTO("Updated User " + seedIndex, seededEmails.get(seedIndex), "Updated by the load test"));
+            case DELETE:
+                Long createdId = createdIds.poll();
+                if (createdId != null) {
+                    return request("/api/users/" + createdId).DELETE().build();
+                }
+                // Nothing created yet: fall back to a read so seeded users are never deleted
+                return request("/api/users/" + seedId).GET().build();
+            case LIST:
+                return request("/api/users?limit=20&after=" + seedId).GET().build();
+            case GET:
+            default:
+                return request("/api/users/" + seedId).GET().build();
+        }
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).timeout(REQUEST_TIMEOUT);
+    }
+
+    private HttpRequest json(String method, String path, UserDTO body) {
+        try {
+            return request(path)
+                .header("Content-Type", "application/json")
+                .method(method, HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                .build();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Check the status and remember created ids for later deletes
+     */
+    private boolean handle(Operation operation, HttpResponse<String> response) {
+        int status = response.statusCode();
+        if (operation == Operation.CREATE && status == 201) {
+            try {
+                createdIds.add(objectMapper.readTree(response.body()).get("id").asLong());
+            } catch (IOException e) {
+                return false;
+            }
+            return true;
+        }
+        return status == 200 || status == 204;
+    }
+
+    @Override
+    public void close() {
+        responseExecutor.shutdownNow();
+    }
+
+    enum Operation {
+        CREATE, GET, LIST, UPDATE, DELETE
+    }
+
+    /**
+     * Latency histograms (microseconds) of one run, overall and per operation
+     */
+    static final class LoadResult {
+
+        private final Histogram latencies = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+        private final Map<Operation, Histogram> perOperation = new EnumMap<>(Operation.class);
+        final LongAdder unexpected = new LongAdder();
+        private long elapsedNanos;
+
+        LoadResult() {
+            for (Operation operation : Operation.values()) {
+                perOperation.put(operation, new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3));
+            }
+        }
+
+        void record(Operation operation, long elapsedNanos, boolean expected) {
+            long micros = Math.min(TimeUnit.NANOSECONDS.toMicros(elapsedNanos), HIGHEST_TRACKABLE_MICROS);
+            latencies.recordValue(micros);
+            perOperation.get(operation).recordValue(micros);
+            if (!expected) {
+                unexpected.increment();
+            }
+        }
+
+        double throughput() {
+            return latencies.getTotalCount() / (elapsedNanos / 1e9);
+        }
+
+        double p99Millis() {
+            return latencies.getValueAtPercentile(99) / 1000.0;
+        }
+
+        String report(String title) {
+            StringBuilder report = new StringBuilder()
+                .append(String.format("%n== %s: %d requests, %.0f req/s, %d unexpected%n",
+                    title, latencies.getTotalCount(), throughput(), unexpected.sum()))
+                .append(String.format("%-8s %8s %9s %9s %9s %9s %9s%n", "", "count", "p50 ms", "p90 ms", "p99 ms", "p999 ms", "max ms"));
+            appendRow(report, "all", latencies);
+            perOperation.forEach((operation, histogram) -> appendRow(report, operation.name().toLowerCase(), histogram));
+            return report.toString();
+        }
+
+        private static void appendRow(StringBuilder report, String name, Histogram histogram) {
+            report.append(String.format("%-8s %8d %9.1f %9.1f %9.1f %9.1f %9.1f%n", name, histogram.getTotalCount(),
+                histogram.getValueAtPercentile(50) / 1000.0, histogram.getValueAtPercentile(90) / 1000.0,
+                histogram.getValueAtPercentile(99) / 1000.0, histogram.getValueAtPercentile(99.9) / 1000.0,
+                histogram.getMaxValue() / 1000.0));
+        }
+    }
+
+    /**
+     * Load settings, overridable with {@code -Dload.<name>=...}
+     */
+    static final class LoadSettings {
+
+        int users;
+        int clients;
+        int rate;
+        Duration warmup;
+        Duration duration;
+        private Operation[] weightedOperations;
+        private String mix;
+
+        static LoadSettings fromSystemProperties() {
+            LoadSettings settings = new LoadSettings();
+            settings.users = Integer.getInteger("load.users", 1000);
+            settings.clients = Integer.getInteger("load.clients", 16);
+            settings.rate = Integer.getInteger("load.rate", 100);
+            settings.warmup = Duration.ofSeconds(Integer.getInteger("load.warmup", 5));
+            settings.duration = Duration.ofSeconds(Integer.getInteger("load.duration", 15));
+            settings.mix = System.getProperty("load.mix", "create=10,get=50,list=20,update=15,delete=5");
+            settings.weightedOperations = parseMix(settings.mix);
+            return settings;
+        }
+
+        /**
+         * "create=10,get=50" becomes an array with 10 CREATE and 50 GET entries to pick from
+         */
+        private static Operation[] parseMix(String mix) {
+            List<Operation> operations = new ArrayList<>();
+            for (String entry : mix.split(",")) {
+                String[] parts = entry.trim().split("=");
+                Operation operation = Operation.valueOf(parts[0].trim().toUpperCase());
+                for (int i = 0; i < Integer.parseInt(parts[1].trim()); i++) {
+                    operations.add(operation);
+                }
+            }
+            return operations.toArray(new Operation[0]);
+        }
+
+        Operation pickOperation() {
+            return weightedOperations[ThreadLocalRandom.current().nextInt(weightedOperations.length)];
+        }
+
+        @Override
+        public String toString() {
+            return String.format("users=%d clients=%d rate=%d/s warmup=%ds duration=%ds mix=%s",
+                users, clients, rate, warmup.toSeconds(), duration.toSeconds(), mix);
+        }
+    }
+}
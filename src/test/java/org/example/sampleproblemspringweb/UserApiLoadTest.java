@@ -0,0 +1,102 @@
+package org.example.sampleproblemspringweb;
+
+import org.example.sampleproblemspringweb.UserApiLoadGenerator.LoadResult;
+import org.example.sampleproblemspringweb.UserApiLoadGenerator.LoadSettings;
+import org.example.sampleproblemspringweb.service.UserService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * End-to-end load test of {@code /api/users} through the full controller, aspect, service and
+ * JPA stack on a random port (see {@link UserApiLoadGenerator}). Excluded from the normal build,
+ * run it with {@code ./mvnw -Pload-test test}; settings are read from {@code -Dload.*} system properties.
+ * <p>
+ * The p99 of the closed- and open-loop runs is compared with {@code load-test-baseline.properties};
+ * the measured values are written to {@code target/load-test/results.properties} to refresh the baseline.
+ */
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+    "spring.datasource.url=jdbc:h2:mem:load-test"
+})
+@DisplayName("User API Load Test")
+class UserApiLoadTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserApiLoadTest.class);
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private UserService userService;
+
+    private final LoadSettings settings = LoadSettings.fromSystemProperties();
+
+    @Test
+    @DisplayName("Should keep p99 of the create/get/list/update/delete mix within the stored baseline")
+    void userApi_MixedLoad_P99WithinBaseline() throws Exception {
+        // Given
+        Properties baseline = loadBaseline();
+        LoadResult closed;
+        LoadResult open;
+
+        // When
+        try (UserApiLoadGenerator generator = UserApiLoadGenerator.seed(port, userService, settings)) {
+            generator.runClosedLoop(settings.warmup, settings.clients);
+            closed = generator.runClosedLoop(settings.duration, settings.clients);
+            open = generator.runOpenLoop(settings.duration, settings.rate);
+        }
+
+        // Then
+        logger.info("{}", settings);
+        logger.info("{}", closed.report("closed loop (" + settings.clients + " clients)"));
+        logger.info("{}", open.report("open loop (" + settings.rate + " req/s)"));
+        writeResults(closed, open);
+
+        assertThat(closed.unexpected.sum()).as("unexpected responses in closed loop").isZero();
+        assertThat(open.unexpected.sum()).as("unexpected responses in open loop").isZero();
+        double tolerance = Double.parseDouble(baseline.getProperty("regression.tolerance", "0.25"));
+        assertThat(closed.p99Millis())
+            .as("closed loop p99 (ms) against baseline %s", baseline.getProperty("closed.p99.ms"))
+            .isLessThanOrEqualTo(Double.parseDouble(baseline.getProperty("closed.p99.ms")) * (1 + tolerance));
+        assertThat(open.p99Millis())
+            .as("open loop p99 (ms) against baseline %s", baseline.getProperty("open.p99.ms"))
+            .isLessThanOrEqualTo(Double.parseDouble(baseline.getProperty("open.p99.ms")) * (1 + tolerance));
+    }
+
+    private Properties loadBaseline() throws IOException {
+        Properties baseline = new Properties();
+        try (InputStream in = getClass().getResourceAsStream("/load-test-baseline.properties")) {
+            assertThat(in).as("load-test-baseline.properties on the test classpath").isNotNull();
+            baseline.load(in);
+        }
+        return baseline;
+    }
+
+    private void writeResults(LoadResult closed, LoadResult open) throws IOException {
+        Path directory = Path.of("target", "load-test");
+        Files.createDirectories(directory);
+        Properties results = new Properties();
+        results.setProperty("closed.p99.ms", String.format("%.1f", closed.p99Millis()));
+        results.setProperty("closed.throughput", String.format("%.0f", closed.throughput()));
+        results.setProperty("open.p99.ms", String.format("%.1f", open.p99Millis()));
+        results.setProperty("open.throughput", String.format("%.0f", open.throughput()));
+        try (Writer out = Files.newBufferedWriter(directory.resolve("results.properties"))) {
+            results.store(out, settings.toString());
+        }
+    }
+}
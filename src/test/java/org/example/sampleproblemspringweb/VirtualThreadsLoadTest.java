@@ -0,0 +1,92 @@
+package org.example.sampleproblemspringweb;
+
+import org.example.sampleproblemspringweb.UserApiLoadGenerator.LoadResult;
+import org.example.sampleproblemspringweb.UserApiLoadGenerator.LoadSettings;
+import org.example.sampleproblemspringweb.service.UserService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares the platform-thread default with the {@code virtual-threads} profile at high
+ * concurrency ({@code -Dload.high-clients}, 400 by default, twice the Tomcat worker pool).
+ * Each mode runs in its own application context and database; the reports are logged and
+ * written to {@code target/load-test/virtual-threads.properties}. Needs the Java 21 build:
+ * {@code ./mvnw -Pjava21,load-test test -Dtest=VirtualThreadsLoadTest}
+ */
+@Tag("load")
+@EnabledForJreRange(min = JRE.JAVA_21)
+@DisplayName("Virtual Threads Load Comparison")
+class VirtualThreadsLoadTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadsLoadTest.class);
+
+    private final LoadSettings settings = LoadSettings.fromSystemProperties();
+    private final int highClients = Integer.getInteger("load.high-clients", 400);
+
+    @Test
+    @DisplayName("Should serve the mixed load on platform and virtual threads without errors")
+    void userApi_HighConcurrency_PlatformVersusVirtualThreads() throws Exception {
+        // When
+        LoadResult platform = run("platform", false);
+        LoadResult virtual = run("virtual", true);
+
+        // Then
+        logger.info("{}, highClients={}", settings, highClients);
+        logger.info("{}", platform.report("platform threads (" + highClients + " clients)"));
+        logger.info("{}", virtual.report("virtual threads + limiter (" + highClients + " clients)"));
+        writeResults(platform, virtual);
+
+        assertThat(platform.unexpected.sum()).as("unexpected responses on platform threads").isZero();
+        assertThat(virtual.unexpected.sum()).as("unexpected responses on virtual threads").isZero();
+    }
+
+    private LoadResult run(String name, boolean virtualThreads) throws InterruptedException {
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(SampleProblemSpringWebApplication.class)
+            .properties(
+                "server.port=0",
+                "spring.datasource.url=jdbc:h2:mem:load-" + name,
+                "spring.jpa.show-sql=false",
+                "logging.level.org.example.sampleproblemspringweb=WARN",
+                // Waiting for a permit is part of the measured latency, not a failure
+                "app.data-access.limiter.acquire-timeout=30s");
+        if (virtualThreads) {
+            builder.profiles("virtual-threads");
+        }
+        try (ConfigurableApplicationContext context = builder.run();
+             UserApiLoadGenerator generator = UserApiLoadGenerator.seed(
+                 ((WebServerApplicationContext) context).getWebServer().getPort(),
+                 context.getBean(UserService.class), settings)) {
+            generator.runClosedLoop(settings.warmup, highClients);
+            return generator.runClosedLoop(settings.duration, highClients);
+        }
+    }
+
+    private void writeResults(LoadResult platform, LoadResult virtual) throws IOException {
+        Path directory = Path.of("target", "load-test");
+        Files.createDirectories(directory);
+        Properties results = new Properties();
+        results.setProperty("platform.p99.ms", String.format("%.1f", platform.p99Millis()));
+        results.setProperty("platform.throughput", String.format("%.0f", platform.throughput()));
+        results.setProperty("virtual.p99.ms", String.format("%.1f", virtual.p99Millis()));
+        results.setProperty("virtual.throughput", String.format("%.0f", virtual.throughput()));
+        try (Writer out = Files.newBufferedWriter(directory.resolve("virtual-threads.properties"))) {
+            results.store(out, settings + ", highClients=" + highClients);
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package org.example.sampleproblemspringweb.aspect;
+
+import org.example.sampleproblemspringweb.config.LoggingAspectProperties;
+import org.example.sampleproblemspringweb.dto.UserResponseDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("BoundedPayloadRenderer Unit Tests")
+class BoundedPayloadRendererTest {
+
+    private BoundedPayloadRenderer renderer;
+
+    @BeforeEach
+    void setUp() {
+        LoggingAspectProperties properties = new LoggingAspectProperties();
+        properties.getPayload().setMaxChars(200);
+        properties.getPayload().setMaxDepth(2);
+        renderer = new BoundedPayloadRenderer(properties);
+    }
+
+    @Test
+    @DisplayName("Should render simple values, collections and objects like the aspect did before")
+    void renderValue_WithinBudget_RendersFully() {
+        // Given
+        UserResponseDTO user = new UserResponseDTO(1L, "John Doe", "john.doe@example.com", "Software Developer");
+
+        // When & Then
+        assertThat(renderer.renderValue("text", -1)).isEqualTo("text");
+        assertThat(renderer.renderValue(42, -1)).isEqualTo("42");
+        assertThat(renderer.renderValue(List.of(1, 2, 3), -1)).endsWith("[size=3]");
+        assertThat(renderer.renderValue(new int[4], -1)).isEqualTo("int[][length=4]");
+        assertThat(renderer.renderValue(user, -1))
+            .isEqualTo("{\"id\":1,\"name\":\"John Doe\",\"email\":\"john.doe@example.com\",\"description\":\"Software Developer\"}");
+        assertThat(renderer.renderValue(ResponseEntity.ok("done"), -1)).isEqualTo("ResponseEntity[status=200, body=done]");
+    }
+
+    @Test
+    @DisplayName("Should cut output at the character budget and append the truncation marker")
+    void renderValue_OverBudget_Truncated() {
+        // Given
+        UserResponseDTO user = new UserResponseDTO(1L, "John Doe", "john.doe@example.com", "x".repeat(50_000));
+
+        // When
+        String json = renderer.renderValue(user, 30);
+        String text = renderer.renderValue("y".repeat(500), -1);
+
+        // Then
+        assertThat(json).isEqualTo("{\"id\":1,\"name\":\"John Doe\",\"ema" + BoundedPayloadRenderer.TRUNCATION_MARKER);
+        assertThat(text).hasSize(200 + BoundedPayloadRenderer.TRUNCATION_MARKER.length())
+            .endsWith(BoundedPayloadRenderer.TRUNCATION_MARKER);
+    }
+
+    @Test
+    @DisplayName("Should share one budget across all arguments")
+    void renderArguments_OverBudget_StopsAtBudget() {
+        // Given
+        Object[] args = {"a".repeat(8), 7L, "b".repeat(8)};
+
+        // When
+        String all = renderer.renderArguments(args, -1);
+        String cut = renderer.renderArguments(args, 12);
+
+        // Then
+        assertThat(all).isEqualTo("[aaaaaaaa, 7, bbbbbbbb]");
+        assertThat(cut).isEqualTo("[aaaaaaaa, 7" + BoundedPayloadRenderer.TRUNCATION_MARKER);
+        assertThat(renderer.renderArguments(new Object[0], -1)).isEqualTo("[]");
+    }
+
+    @Test
+    @DisplayName("Should stop at the depth limit and keep the rendered prefix")
+    void renderValue_TooDeep_TruncatedAtDepth() {
+        // Given
+        Nested nested = new Nested(new Nested(new Nested(null)));
+
+        // When
+        String rendered = renderer.renderValue(nested, -1);
+
+        // Then
+        assertThat(rendered).startsWith("{\"child\":{").endsWith(BoundedPayloadRenderer.TRUNCATION_MARKER);
+    }
+
+    @Test
+    @DisplayName("Should fall back to toString for values Jackson cannot serialize")
+    void renderValue_NotSerializable_FallsBackToToString() {
+        // When
+        String rendered = renderer.renderValue(new Opaque(), -1);
+
+        // Then
+        assertThat(rendered).isEqualTo("Opaque[toString=opaque]");
+        assertThat(renderer.renderValue(Map.of("k", "v"), -1)).endsWith("[size=1]");
+    }
+
+    @Test
+    @DisplayName("Should cut an oversized toString fallback at the budget")
+    void renderValue_NotSerializableOverBudget_Truncated() {
+        // When
+        String rendered = renderer.renderValue(new Opaque("z".repeat(50_000)), 30);
+
+        // Then
+        assertThat(rendered).isEqualTo("Opaque[toString=" + "z".repeat(14) + BoundedPayloadRenderer.TRUNCATION_MARKER);
+    }
+
+    public record Nested(Nested child) {
+    }
+
+    static class Opaque {
+
+        private final String text;
+
+        Opaque() {
+            this("opaque");
+        }
+
+        Opaque(String text) {
+            this.text = text;
+        }
+
+        @Override
+        public String toString() {
+            return text;
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package org.example.sampleproblemspringweb.aspect;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.sampleproblemspringweb.annotation.Coalesced;
+import org.example.sampleproblemspringweb.config.DataAccessProperties;
+import org.example.sampleproblemspringweb.service.UserTableVersion;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DisplayName("CoalescingAspect Unit Tests")
+class CoalescingAspectTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private UserTableVersion tableVersion;
+    private DataAccessProperties properties;
+    private CoalescingAspect coalescingAspect;
+    private SlowService target;
+    private SlowService service;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        tableVersion = mock(UserTableVersion.class);
+        when(tableVersion.current()).thenReturn("v-0");
+        properties = new DataAccessProperties();
+        createProxy();
+    }
+
+    @Test
+    @DisplayName("Should run concurrent calls with equal arguments once and share the result")
+    void coalesce_SameArguments_SharesOneCall() throws Exception {
+        // Given
+        CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> service.read(1L));
+        assertThat(target.entered.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // When
+        CompletableFuture<String> second = CompletableFuture.supplyAsync(() -> service.read(1L));
+        awaitCoalescedCalls(1);
+        target.release.countDown();
+
+        // Then
+        assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("user-1");
+        assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo("user-1");
+        assertThat(target.calls.get()).isEqualTo(1);
+        assertThat(coalescingAspect.inFlightCalls()).isZero();
+        assertThat(meterRegistry.get(CoalescingAspect.CALLS_METRIC).tag("result", "executed").counter().count())
+            .isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should pass the exception of the shared call to every caller")
+    void coalesce_CallFails_EveryCallerSeesException() throws Exception {
+        // Given
+        target.failure = new IllegalStateException("boom");
+        CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> service.read(1L));
+        assertThat(target.entered.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<String> second = CompletableFuture.supplyAsync(() -> service.read(1L));
+        awaitCoalescedCalls(1);
+
+        // When
+        target.release.countDown();
+
+        // Then
+        assertThatThrownBy(() -> first.get(5, TimeUnit.SECONDS))
+            .isInstanceOf(ExecutionException.class).cause().isSameAs(target.failure);
+        assertThatThrownBy(() -> second.get(5, TimeUnit.SECONDS))
+            .isInstanceOf(ExecutionException.class).cause().isSameAs(target.failure);
+        assertThat(target.calls.get()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should not share a call across different arguments or table versions")
+    void coalesce_DifferentKey_RunsSeparately() {
+        // Given
+        target.release.countDown();
+
+        // When
+        service.read(1L);
+        service.read(2L);
+        when(tableVersion.current()).thenReturn("v-1");
+        service.read(1L);
+
+        // Then
+        assertThat(target.calls.get()).isEqualTo(3);
+        assertThat(coalescedCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should run the call itself once the in-flight call outlasts the join timeout")
+    void coalesce_JoinTimesOut_RunsOwnCall() throws Exception {
+        // Given
+        properties.getCoalescing().setJoinTimeout(Duration.ofMillis(50));
+        createProxy();
+        CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> service.read(1L));
+        assertThat(target.entered.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // When
+        CompletableFuture<String> second = CompletableFuture.supplyAsync(() -> service.read(1L));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (target.calls.get() < 2 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        target.release.countDown();
+
+        // Then
+        assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("user-1");
+        assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo("user-1");
+        assertThat(target.calls.get()).isEqualTo(2);
+        assertThat(meterRegistry.get(CoalescingAspect.CALLS_METRIC).tag("result", "timeout").counter().count())
+            .isEqualTo(1.0);
+    }
+
+    private void createProxy() {
+        coalescingAspect = new CoalescingAspect(tableVersion, properties, meterRegistry);
+        target = new SlowService();
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.setProxyTargetClass(true);
+        factory.addAspect(coalescingAspect);
+        service = factory.getProxy();
+    }
+
+    private void awaitCoalescedCalls(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (coalescedCount() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(coalescedCount()).isEqualTo(expected);
+    }
+
+    private double coalescedCount() {
+        return meterRegistry.find(CoalescingAspect.CALLS_METRIC).tag("result", "coalesced").counters().stream()
+            .mapToDouble(counter -> counter.count())
+            .sum();
+    }
+
+    static class SlowService {
+
+        final CountDownLatch entered = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final AtomicInteger calls = new AtomicInteger();
+        volatile RuntimeException failure;
+
+        @Coalesced
+        public String read(Long id) {
+            calls.incrementAndGet();
+            entered.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (failure != null) {
+                throw failure;
+            }
+            return "user-" + id;
+        }
+    }
+}
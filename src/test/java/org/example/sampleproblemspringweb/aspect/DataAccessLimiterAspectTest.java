@@ -0,0 +1,145 @@
+package org.example.sampleproblemspringweb.aspect;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.sampleproblemspringweb.annotation.Streaming;
+import org.example.sampleproblemspringweb.config.DataAccessProperties;
+import org.example.sampleproblemspringweb.exception.ServerBusyException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("DataAccessLimiterAspect Unit Tests")
+class DataAccessLimiterAspectTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private DataAccessLimiterAspect limiterAspect;
+    private LimitedService service;
+
+    @BeforeEach
+    void setUp() {
+        DataAccessProperties properties = new DataAccessProperties();
+        properties.getLimiter().setMaxConcurrent(1);
+        properties.getLimiter().setMaxConcurrentStreams(1);
+        properties.getLimiter().setAcquireTimeout(Duration.ofMillis(50));
+        meterRegistry = new SimpleMeterRegistry();
+        limiterAspect = new DataAccessLimiterAspect(properties, meterRegistry);
+
+        LimitedService target = new LimitedService();
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.setProxyTargetClass(true);
+        factory.addAspect(limiterAspect);
+        service = factory.getProxy();
+        target.self = service;
+    }
+
+    @Test
+    @DisplayName("Should release the permit after the call returns or throws")
+    void limit_ReleasesPermit() {
+        // When
+        service.read();
+        assertThatThrownBy(() -> service.fail()).isInstanceOf(IllegalStateException.class);
+
+        // Then
+        assertThat(limiterAspect.availablePermits()).isEqualTo(1);
+        assertThat(meterRegistry.get(DataAccessLimiterAspect.AVAILABLE_METRIC).gauge().value()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should let nested service calls reuse the permit of the outer call")
+    void limit_NestedCall_ReusesPermit() {
+        // When
+        String result = service.outer();
+
+        // Then
+        assertThat(result).isEqualTo("outer:inner");
+        assertThat(limiterAspect.availablePermits()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should reject with 503 when no permit frees up within the acquire timeout")
+    void limit_Saturated_ThrowsServerBusy() throws Exception {
+        // Given
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> holder = CompletableFuture.runAsync(() -> service.hold(entered, release));
+        assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // When / Then
+        try {
+            assertThatThrownBy(() -> service.read()).isInstanceOf(ServerBusyException.class);
+        } finally {
+            release.countDown();
+            holder.get(5, TimeUnit.SECONDS);
+        }
+        assertThat(service.read()).isEqualTo("read");
+    }
+
+    @Test
+    @DisplayName("Should run a streaming call on its own permits without blocking the other calls")
+    void limit_Streaming_UsesSeparatePermits() throws Exception {
+        // Given - an export holds the only streaming permit
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> export = CompletableFuture.runAsync(() -> service.export(entered, release));
+        assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // When / Then
+        try {
+            assertThat(service.read()).isEqualTo("read");
+            assertThat(limiterAspect.availablePermits()).isEqualTo(1);
+            assertThat(limiterAspect.availableStreamPermits()).isZero();
+            assertThatThrownBy(() -> service.export(new CountDownLatch(1), new CountDownLatch(0)))
+                .isInstanceOf(ServerBusyException.class);
+        } finally {
+            release.countDown();
+            export.get(5, TimeUnit.SECONDS);
+        }
+        assertThat(limiterAspect.availableStreamPermits()).isEqualTo(1);
+    }
+
+    @Service
+    static class LimitedService {
+
+        LimitedService self;
+
+        public String read() {
+            return "read";
+        }
+
+        public String outer() {
+            return "outer:" + self.inner();
+        }
+
+        public String inner() {
+            return "inner";
+        }
+
+        public void fail() {
+            throw new IllegalStateException("boom");
+        }
+
+        @Streaming
+        public void export(CountDownLatch entered, CountDownLatch release) {
+            hold(entered, release);
+        }
+
+        public void hold(CountDownLatch entered, CountDownLatch release) {
+            entered.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
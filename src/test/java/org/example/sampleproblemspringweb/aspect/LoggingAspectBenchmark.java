@@ -0,0 +1,98 @@
+package org.example.sampleproblemspringweb.aspect;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.sampleproblemspringweb.annotation.Loggable;
+import org.example.sampleproblemspringweb.config.LoggingAspectProperties;
+import org.example.sampleproblemspringweb.dto.UserResponseDTO;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of {@link LoggingAspect} compared with calling the target directly:
+ * <ul>
+ *   <li>{@code disabledLevelAdvice} - {@code @Loggable(DEBUG)} while the logger runs at INFO, nothing is rendered</li>
+ *   <li>{@code serviceAdvice} - a {@code @Service} method without {@code @Loggable}, logged at INFO</li>
+ *   <li>{@code loggableAdvice} - a method on a plain bean annotated with {@code @Loggable}, logged at INFO</li>
+ * </ul>
+ * Enabled levels are rendered but written to a Null appender ({@code log4j2-benchmark.xml}), so the
+ * results are the advice and payload rendering overhead without disk I/O. Run with {@code -prof gc}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dlog4j2.configurationFile=log4j2-benchmark.xml")
+public class LoggingAspectBenchmark {
+
+    private DebugLoggedService target;
+    private DebugLoggedService advised;
+    private PlainService advisedService;
+    private InfoLoggedComponent advisedLoggable;
+
+    @Setup
+    public void setUp() {
+        LoggingAspectProperties properties = new LoggingAspectProperties();
+        LoggingAspect aspect = new LoggingAspect(new BoundedPayloadRenderer(properties), properties, new SimpleMeterRegistry());
+        target = new DebugLoggedService();
+        advised = proxy(target, aspect);
+        advisedService = proxy(new PlainService(), aspect);
+        advisedLoggable = proxy(new InfoLoggedComponent(), aspect);
+    }
+
+    private static <T> T proxy(T target, LoggingAspect aspect) {
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.setProxyTargetClass(true);
+        factory.addAspect(aspect);
+        return factory.getProxy();
+    }
+
+    @Benchmark
+    public UserResponseDTO directCall() {
+        return target.findUser(1L);
+    }
+
+    @Benchmark
+    public UserResponseDTO disabledLevelAdvice() {
+        return advised.findUser(1L);
+    }
+
+    @Benchmark
+    public UserResponseDTO serviceAdvice() {
+        return advisedService.findUser(1L);
+    }
+
+    @Benchmark
+    public UserResponseDTO loggableAdvice() {
+        return advisedLoggable.findUser(1L);
+    }
+
+    private static final UserResponseDTO USER = new UserResponseDTO(1L, "John Doe", "john.doe@example.com", "Software Developer");
+
+    public static class DebugLoggedService {
+
+        @Loggable(Loggable.LogLevel.DEBUG)
+        public UserResponseDTO findUser(Long id) {
+            return USER;
+        }
+    }
+
+    @Service
+    public static class PlainService {
+
+        public UserResponseDTO findUser(Long id) {
+            return USER;
+        }
+    }
+
+    public static class InfoLoggedComponent {
+
+        @Loggable
+        public UserResponseDTO findUser(Long id) {
+            return USER;
+        }
+    }
+}
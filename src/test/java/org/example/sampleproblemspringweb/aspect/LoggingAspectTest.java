@@ -0,0 +1,310 @@
+package org.example.sampleproblemspringweb.aspect;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.appender.AbstractAppender;
+import org.apache.logging.log4j.core.config.Property;
+import org.example.sampleproblemspringweb.annotation.Loggable;
+import org.example.sampleproblemspringweb.config.LoggingAspectProperties;
+import org.example.sampleproblemspringweb.exception.UserNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.zalando.problem.Problem;
+import org.zalando.problem.Status;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("LoggingAspect Unit Tests")
+class LoggingAspectTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private LoggingAspect loggingAspect;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        loggingAspect = new LoggingAspect(new BoundedPayloadRenderer(new LoggingAspectProperties()),
+            new LoggingAspectProperties(), meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Should resolve method metadata once and reuse it")
+    void metadataFor_CachedPerMethod() throws Exception {
+        // Given
+        Method method = AnnotatedTarget.class.getMethod("inherited", String.class);
+
+        // When
+        MethodLogMetadata first = loggingAspect.metadataFor(AnnotatedTarget.class, method);
+        MethodLogMetadata second = loggingAspect.metadataFor(AnnotatedTarget.class, method);
+
+        // Then
+        assertThat(second).isSameAs(first);
+        assertThat(first.name()).isEqualTo("AnnotatedTarget.inherited");
+    }
+
+    @Test
+    @DisplayName("Should fall back to the class-level @Loggable settings")
+    void metadataFor_ClassAnnotation_Applied() throws Exception {
+        // Given
+        Method method = AnnotatedTarget.class.getMethod("inherited", String.class);
+
+        // When
+        MethodLogMetadata metadata = loggingAspect.metadataFor(AnnotatedTarget.class, method);
+
+        // Then
+        assertThat(metadata.level()).isEqualTo(Loggable.LogLevel.DEBUG);
+        assertThat(metadata.logParams()).isTrue();
+        assertThat(metadata.logResult()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should prefer method-level @Loggable over the class annotation")
+    void metadataFor_MethodAnnotation_Overrides() throws Exception {
+        // Given
+        Method method = AnnotatedTarget.class.getMethod("custom");
+
+        // When
+        MethodLogMetadata metadata = loggingAspect.metadataFor(AnnotatedTarget.class, method);
+
+        // Then
+        assertThat(metadata.level()).isEqualTo(Loggable.LogLevel.WARN);
+        assertThat(metadata.logParams()).isFalse();
+        assertThat(metadata.logResult()).isTrue();
+        assertThat(metadata.logExecutionTime()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should use INFO and log everything when no @Loggable is present")
+    void metadataFor_NoAnnotation_Defaults() throws Exception {
+        // Given
+        Method method = PlainTarget.class.getMethod("echo", String.class);
+
+        // When
+        MethodLogMetadata metadata = loggingAspect.metadataFor(PlainTarget.class, method);
+
+        // Then
+        assertThat(metadata.name()).isEqualTo("PlainTarget.echo");
+        assertThat(metadata.level()).isEqualTo(Loggable.LogLevel.INFO);
+        assertThat(metadata.logParams()).isTrue();
+        assertThat(metadata.logResult()).isTrue();
+        assertThat(metadata.logExecutionTime()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should return the result of advised methods and rethrow their exceptions")
+    void logMethodExecution_ProxiedCalls_PassThrough() {
+        // Given
+        AnnotatedTarget proxy = proxy(new AnnotatedTarget());
+
+        // When & Then
+        assertThat(proxy.inherited("value")).isEqualTo("VALUE");
+        assertThat(proxy.custom()).isEqualTo("custom");
+        assertThatThrownBy(proxy::failing)
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessage("boom");
+    }
+
+    @Test
+    @DisplayName("Should treat expected problems and client errors as expected, everything else as a failure")
+    void isExpected_ProblemsAndClientErrors() {
+        assertThat(LoggingAspect.isExpected(new UserNotFoundException(1L))).isTrue();
+        assertThat(LoggingAspect.isExpected(Problem.valueOf(Status.BAD_REQUEST))).isTrue();
+        assertThat(LoggingAspect.isExpected(Problem.valueOf(Status.INTERNAL_SERVER_ERROR))).isFalse();
+        assertThat(LoggingAspect.isExpected(new IllegalStateException("boom"))).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should rethrow expected problems unchanged")
+    void logMethodExecution_ExpectedProblem_Rethrown() {
+        // Given
+        AnnotatedTarget proxy = proxy(new AnnotatedTarget());
+
+        // When & Then
+        assertThatThrownBy(proxy::missing)
+            .isInstanceOf(UserNotFoundException.class);
+        assertThat(meterRegistry.get(LoggingAspect.LATENCY_METRIC).tag("method", "missing").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should take sampling settings from @Loggable and fall back to the configured defaults")
+    void metadataFor_Sampling_Resolved() throws Exception {
+        // Given
+        LoggingAspectProperties properties = new LoggingAspectProperties();
+        properties.getSampling().setRate(10);
+        properties.getSampling().setSlowThresholdMillis(250);
+        LoggingAspect aspect = new LoggingAspect(new BoundedPayloadRenderer(properties), properties, new SimpleMeterRegistry());
+
+        // When
+        MethodLogMetadata defaults = aspect.metadataFor(PlainTarget.class, PlainTarget.class.getMethod("echo", String.class));
+        MethodLogMetadata sampled = aspect.metadataFor(SampledTarget.class, SampledTarget.class.getMethod("sampled"));
+        MethodLogMetadata everyCall = aspect.metadataFor(SampledTarget.class, SampledTarget.class.getMethod("everyCall"));
+
+        // Then
+        assertThat(defaults.sampleRate()).isEqualTo(10);
+        assertThat(defaults.slowCallsOnly()).isTrue();
+        assertThat(defaults.slowThresholdNanos()).isEqualTo(TimeUnit.MILLISECONDS.toNanos(250));
+        assertThat(sampled.sampleRate()).isEqualTo(100);
+        assertThat(sampled.slowThresholdNanos()).isEqualTo(TimeUnit.MILLISECONDS.toNanos(5));
+        assertThat(everyCall.sampleRate()).isEqualTo(1);
+        assertThat(everyCall.slowCallsOnly()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should pick roughly 1 in N invocations and every invocation at rate 1")
+    void sample_Rate_SelectsOneInN() throws Exception {
+        // Given
+        MethodLogMetadata sampled = loggingAspect.metadataFor(SampledTarget.class, SampledTarget.class.getMethod("sampled"));
+        MethodLogMetadata everyCall = loggingAspect.metadataFor(SampledTarget.class, SampledTarget.class.getMethod("everyCall"));
+
+        // When
+        int picked = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (sampled.sample()) {
+                picked++;
+            }
+        }
+
+        // Then
+        assertThat(picked).isBetween(700, 1300);
+        assertThat(everyCall.sample()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should log every call over the slow threshold whatever the sample rate")
+    void logMethodExecution_SlowCall_LoggedDespiteSampling() {
+        // Given
+        SampledTarget proxy = proxy(new SampledTarget());
+        org.apache.logging.log4j.core.Logger aspectLogger =
+            (org.apache.logging.log4j.core.Logger) LogManager.getLogger(LoggingAspect.class);
+        List<String> messages = new CopyOnWriteArrayList<>();
+        AbstractAppender appender = new AbstractAppender("capture", null, null, true, Property.EMPTY_ARRAY) {
+            @Override
+            public void append(LogEvent event) {
+                messages.add(event.getMessage().getFormattedMessage());
+            }
+        };
+        appender.start();
+        Level previousLevel = aspectLogger.getLevel();
+        aspectLogger.addAppender(appender);
+        aspectLogger.setLevel(Level.INFO);
+
+        // When
+        try {
+            for (int i = 0; i < 3; i++) {
+                proxy.slow();
+            }
+        } finally {
+            aspectLogger.removeAppender(appender);
+            aspectLogger.setLevel(previousLevel);
+            appender.stop();
+        }
+
+        // Then
+        assertThat(messages).hasSize(3).allMatch(message -> message.startsWith("← Exiting method: SampledTarget.slow"));
+    }
+
+    @Test
+    @DisplayName("Should record every advised call, including failures, in the method's latency timer")
+    void logMethodExecution_Metrics_RecordedPerMethod() {
+        // Given
+        AnnotatedTarget proxy = proxy(new AnnotatedTarget());
+        MethodLatencyEndpoint endpoint = new MethodLatencyEndpoint(meterRegistry);
+
+        // When
+        proxy.custom();
+        proxy.custom();
+        assertThatThrownBy(proxy::failing).isInstanceOf(IllegalStateException.class);
+        Map<String, Map<String, Object>> latencies = endpoint.latencies();
+
+        // Then
+        assertThat(meterRegistry.get(LoggingAspect.LATENCY_METRIC).tag("method", "custom").timer().count()).isEqualTo(2);
+        assertThat(latencies).containsOnlyKeys("AnnotatedTarget.custom", "AnnotatedTarget.failing");
+        assertThat(latencies.get("AnnotatedTarget.failing"))
+            .containsEntry("count", 1L)
+            .containsKeys("meanMs", "maxMs", "p50Ms", "p99Ms", "p999Ms");
+    }
+
+    @Test
+    @DisplayName("Should not register timers when metrics are disabled")
+    void logMethodExecution_MetricsDisabled_NoTimers() {
+        // Given
+        LoggingAspectProperties properties = new LoggingAspectProperties();
+        properties.getMetrics().setEnabled(false);
+        loggingAspect = new LoggingAspect(new BoundedPayloadRenderer(properties), properties, meterRegistry);
+        AnnotatedTarget proxy = proxy(new AnnotatedTarget());
+
+        // When
+        proxy.custom();
+
+        // Then
+        assertThat(meterRegistry.find(LoggingAspect.LATENCY_METRIC).timers()).isEmpty();
+    }
+
+    private <T> T proxy(T target) {
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.setProxyTargetClass(true);
+        factory.addAspect(loggingAspect);
+        return factory.getProxy();
+    }
+
+    @Loggable(value = Loggable.LogLevel.DEBUG, logResult = false)
+    static class AnnotatedTarget {
+
+        public String inherited(String value) {
+            return value.toUpperCase();
+        }
+
+        @Loggable(value = Loggable.LogLevel.WARN, logParams = false, logExecutionTime = false)
+        public String custom() {
+            return "custom";
+        }
+
+        @Loggable
+        public String failing() {
+            throw new IllegalStateException("boom");
+        }
+
+        @Loggable
+        public String missing() {
+            throw new UserNotFoundException(1L);
+        }
+    }
+
+    static class SampledTarget {
+
+        @Loggable(sampleRate = 100, slowThresholdMillis = 5)
+        public void sampled() {
+        }
+
+        @Loggable(sampleRate = 1, slowThresholdMillis = 0)
+        public void everyCall() {
+        }
+
+        @Loggable(sampleRate = Integer.MAX_VALUE, slowThresholdMillis = 1)
+        public void slow() {
+            try {
+                Thread.sleep(5);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    static class PlainTarget {
+
+        public String echo(String value) {
+            return value;
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package org.example.sampleproblemspringweb.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.sampleproblemspringweb.config.UserProperties;
+import org.example.sampleproblemspringweb.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DisplayName("EmailIndex Unit Tests")
+class EmailIndexTest {
+
+    private UserRepository userRepository;
+    private UserProperties userProperties;
+    private SimpleMeterRegistry meterRegistry;
+    private EmailIndex index;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        userProperties = new UserProperties();
+        userProperties.getEmailIndex().setExpectedEmails(1_000);
+        meterRegistry = new SimpleMeterRegistry();
+        // Rebuilds run on the calling thread
+        index = new EmailIndex(userRepository, mock(PlatformTransactionManager.class), Runnable::run,
+            userProperties, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Should report every email as maybe present until built")
+    void mightContain_NotBuilt_ReturnsTrue() {
+        assertThat(index.mightContain("new@example.com")).isTrue();
+        assertThat(index.sizeInBytes()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should rule out unknown emails once built from the table")
+    void build_ThenMightContain_AnswersFromTable() {
+        // Given
+        when(userRepository.streamAllEmails()).thenReturn(Stream.of("john.doe@example.com", "jane.smith@example.com"));
+
+        // When
+        index.build();
+
+        // Then
+        assertThat(index.mightContain("john.doe@example.com")).isTrue();
+        assertThat(index.mightContain(" John.Doe@Example.com ")).isTrue();
+        assertThat(index.mightContain("new@example.com")).isFalse();
+        assertThat(index.sizeInBytes()).isPositive();
+        assertThat(meterRegistry.get("users.email.index.checks").tag("result", "absent").counter().count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("users.email.index.size").gauge().value()).isEqualTo(index.sizeInBytes());
+    }
+
+    @Test
+    @DisplayName("Should report added emails as maybe present")
+    void add_ThenMightContain_ReturnsTrue() {
+        // Given
+        when(userRepository.streamAllEmails()).thenReturn(Stream.empty());
+        index.build();
+
+        // When
+        index.add("new@example.com");
+
+        // Then
+        assertThat(index.mightContain("new@example.com")).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should rebuild from the table once half of the entries are stale")
+    void markStale_HalfOfEntries_Rebuilds() {
+        // Given
+        when(userRepository.streamAllEmails())
+            .thenReturn(Stream.of("john.doe@example.com", "jane.smith@example.com"))
+            .thenReturn(Stream.of("jane.smith@example.com"));
+        index.build();
+        assertThat(index.mightContain("john.doe@example.com")).isTrue();
+
+        // When
+        index.markStale(1);
+        index.markStale(1);
+
+        // Then
+        assertThat(index.mightContain("john.doe@example.com")).isFalse();
+        assertThat(index.mightContain("jane.smith@example.com")).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should keep an email whose insert commits after a rebuild streamed the table")
+    void add_CommitAfterRebuild_StillPresent() {
+        // Given - the rebuild's stream does not see the insert that is still in flight
+        when(userRepository.streamAllEmails())
+            .thenReturn(Stream.of("john.doe@example.com", "jane.smith@example.com"))
+            .thenReturn(Stream.of("jane.smith@example.com"));
+        index.build();
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            index.add("late@example.com");
+
+            // When - the rebuild swaps in a filter without the email, then the insert commits
+            index.markStale(2);
+            assertThat(index.mightContain("john.doe@example.com")).isFalse();
+            TransactionSynchronizationManager.getSynchronizations()
+                .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // Then
+        assertThat(index.mightContain("late@example.com")).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should keep false positives near the configured rate")
+    void bloomFilter_FalsePositiveRate_NearTarget() {
+        // Given
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.add("user" + i + "@example.com");
+        }
+
+        // When
+        int falsePositives = 0;
+        for (int i = 10_000; i < 110_000; i++) {
+            if (filter.mightContain("user" + i + "@example.com")) {
+                falsePositives++;
+            }
+        }
+
+        // Then
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(filter.mightContain("user" + i + "@example.com")).isTrue();
+        }
+        assertThat(falsePositives / 100_000.0).isLessThan(0.02);
+        assertThat(filter.expectedFalsePositiveRate()).isBetween(0.005, 0.02);
+        assertThat(filter.sizeInBytes()).isLessThan(16_000);
+    }
+
+    @Test
+    @DisplayName("Should publish the share of absent emails that still needed a query")
+    void recordFalsePositives_UpdatesObservedRate() {
+        // Given
+        when(userRepository.streamAllEmails()).thenReturn(Stream.empty());
+        index.build();
+        index.mightContain("new@example.com");
+
+        // When
+        index.recordFalsePositives(1);
+
+        // Then
+        assertThat(meterRegistry.get("users.email.index.fpp.observed").gauge().value()).isEqualTo(0.5);
+    }
+}
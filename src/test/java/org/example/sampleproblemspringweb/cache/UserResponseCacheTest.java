@@ -0,0 +1,89 @@
+package org.example.sampleproblemspringweb.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.sampleproblemspringweb.config.UserProperties;
+import org.example.sampleproblemspringweb.dto.UserResponseDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("UserResponseCache Unit Tests")
+class UserResponseCacheTest {
+
+    private final UserResponseDTO user = new UserResponseDTO(1L, "John Doe", "john.doe@example.com", "Software Developer", 3L);
+
+    private SimpleMeterRegistry meterRegistry;
+    private UserResponseCache cache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new UserResponseCache(new UserProperties(), new ObjectMapper(), meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Should cache the serialized JSON and count hits and misses")
+    void put_ThenGet_ReturnsJson() {
+        // When
+        assertThat(cache.get(1L)).isNull();
+        cache.put(user, cache.generation());
+        UserResponseCache.Entry entry = cache.get(1L);
+
+        // Then
+        assertThat(entry.version()).isEqualTo(3L);
+        assertThat(new String(entry.json(), StandardCharsets.UTF_8))
+            .isEqualTo("{\"id\":1,\"name\":\"John Doe\",\"email\":\"john.doe@example.com\",\"description\":\"Software Developer\"}");
+        assertThat(meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("cache.gets").tag("result", "miss").functionCounter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should drop invalidated users")
+    void invalidate_RemovesEntry() {
+        // Given
+        cache.put(user, cache.generation());
+
+        // When
+        cache.invalidateAll(List.of(1L, 2L));
+
+        // Then
+        assertThat(cache.get(1L)).isNull();
+    }
+
+    @Test
+    @DisplayName("Should not store a user loaded before an invalidation")
+    void put_AfterInvalidation_IsDropped() {
+        // Given
+        long generation = cache.generation();
+        cache.invalidate(1L);
+
+        // When
+        UserResponseCache.Entry entry = cache.put(user, generation);
+
+        // Then
+        assertThat(entry.json()).isNotEmpty();
+        assertThat(cache.get(1L)).isNull();
+    }
+
+    @Test
+    @DisplayName("Should only serialize when disabled")
+    void disabled_NeverCaches() {
+        // Given
+        UserProperties properties = new UserProperties();
+        properties.getResponseCache().setEnabled(false);
+        UserResponseCache disabled = new UserResponseCache(properties, new ObjectMapper(), meterRegistry);
+
+        // When
+        UserResponseCache.Entry entry = disabled.put(user, disabled.generation());
+
+        // Then
+        assertThat(entry.json()).isNotEmpty();
+        assertThat(disabled.get(1L)).isNull();
+    }
+}
@@ -0,0 +1,30 @@
+package org.example.sampleproblemspringweb.config;
+
+import org.example.sampleproblemspringweb.exception.ExpectedProblem;
+import org.example.sampleproblemspringweb.exception.UserNotFoundException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// The stack trace flag is process-wide, so the context is closed after this class to reset it
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:lean-problems")
+@ActiveProfiles("lean-problems")
+@DirtiesContext
+@DisplayName("ProblemConfig Integration Tests")
+class ProblemConfigTest {
+
+    @Test
+    @DisplayName("Should turn off stack traces of expected problems with the lean-problems profile")
+    void leanProblemsProfile_StackTracesDisabled() {
+        // When
+        UserNotFoundException problem = new UserNotFoundException(42L);
+
+        // Then
+        assertThat(ExpectedProblem.isStackTraces()).isFalse();
+        assertThat(problem.getStackTrace()).isEmpty();
+    }
+}
@@ -0,0 +1,241 @@
+package org.example.sampleproblemspringweb.controller;
+
+import org.example.sampleproblemspringweb.dto.UserDTO;
+import org.example.sampleproblemspringweb.dto.UserResponseDTO;
+import org.example.sampleproblemspringweb.exception.EmailAlreadyExistsException;
+import org.example.sampleproblemspringweb.exception.UserNotFoundException;
+import org.example.sampleproblemspringweb.service.UserService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:async-controller",
+    "app.async.enabled=true",
+    "app.async.read.threads=1",
+    "app.async.read.queue-capacity=0",
+    "app.async.read.timeout=1s",
+    "app.async.write.timeout=1s"
+})
+@AutoConfigureMockMvc
+@DisplayName("AsyncUserController Integration Tests")
+class AsyncUserControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private UserService userService;
+
+    @Test
+    @DisplayName("Should run the lookup on the read executor - HTTP 200")
+    void getUserById_Success() throws Exception {
+        // Given
+        AtomicReference<String> thread = new AtomicReference<>();
+        when(userService.getUserById(1L)).thenAnswer(invocation -> {
+            thread.set(Thread.currentThread().getName());
+            return new UserResponseDTO(1L, "John Doe", "john.doe@example.com", "Software Developer");
+        });
+
+        // When
+        MvcResult result = mockMvc.perform(get("/api/async/users/1"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        // Then
+        mockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.email").value("john.doe@example.com"));
+        assertThat(thread.get()).startsWith("user-read-");
+    }
+
+    @Test
+    @DisplayName("Should render UserNotFoundException as a problem - HTTP 404")
+    void getUserById_NotFound() throws Exception {
+        // Given
+        when(userService.getUserById(999L)).thenThrow(new UserNotFoundException(999L));
+
+        // When
+        MvcResult result = mockMvc.perform(get("/api/async/users/999"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        // Then
+        mockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isNotFound())
+            .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_PROBLEM_JSON))
+            .andExpect(jsonPath("$.title").value("User Not Found"))
+            .andExpect(jsonPath("$.detail").value("User with id 999 not found"));
+    }
+
+    @Test
+    @DisplayName("Should render EmailAlreadyExistsException as a problem - HTTP 409")
+    void createUser_EmailExists() throws Exception {
+        // Given
+        when(userService.createUser(any(UserDTO.class)))
+            .thenThrow(new EmailAlreadyExistsException("john.doe@example.com"));
+
+        // When
+        MvcResult result = mockMvc.perform(post("/api/async/users")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"John Doe\",\"email\":\"john.doe@example.com\",\"description\":\"Developer\"}"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        // Then
+        mockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isConflict())
+            .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_PROBLEM_JSON))
+            .andExpect(jsonPath("$.title").value("Email Already Exists"));
+    }
+
+    @Test
+    @DisplayName("Should reject with 503 when the read executor is saturated")
+    void getUserById_ExecutorSaturated() throws Exception {
+        // Given - the only read thread is blocked and there is no queue
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(userService.getUserById(10L)).thenAnswer(invocation -> {
+            entered.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return new UserResponseDTO(10L, "John Doe", "john.doe@example.com", "Software Developer");
+        });
+        MvcResult blocked = mockMvc.perform(get("/api/async/users/10")).andReturn();
+        assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // When / Then
+        try {
+            mockMvc.perform(get("/api/async/users/11"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(jsonPath("$.title").value("Server Busy"));
+        } finally {
+            release.countDown();
+        }
+        mockMvc.perform(asyncDispatch(blocked)).andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("Should answer If-None-Match with the current ETag with 304 - HTTP 304")
+    void getUserById_NotModified() throws Exception {
+        // Given
+        when(userService.getUserVersion(20L)).thenReturn(Optional.of(3L));
+
+        // When
+        MvcResult result = mockMvc.perform(get("/api/async/users/20").header(HttpHeaders.IF_NONE_MATCH, "\"3\""))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        // Then
+        mockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isNotModified())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"3\""));
+        verify(userService, never()).getUserById(20L);
+    }
+
+    @Test
+    @DisplayName("Should update only at the version given in If-Match and return the new ETag")
+    void updateUser_IfMatch_PassesExpectedVersion() throws Exception {
+        // Given
+        UserResponseDTO updated = new UserResponseDTO(21L, "John Doe", "john.doe@example.com", "Developer", 4L);
+        when(userService.updateUser(eq(21L), any(UserDTO.class), eq(3L))).thenReturn(updated);
+
+        // When
+        MvcResult result = mockMvc.perform(put("/api/async/users/21")
+                .header(HttpHeaders.IF_MATCH, "\"3\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"John Doe\",\"email\":\"john.doe@example.com\",\"description\":\"Developer\"}"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        // Then
+        mockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"4\""));
+        verify(userService, never()).updateUser(eq(21L), any(UserDTO.class));
+    }
+
+    @Test
+    @DisplayName("Should answer with 503 when the lookup outlasts the read timeout")
+    void getUserById_Timeout() throws Exception {
+        // Given
+        CountDownLatch release = new CountDownLatch(1);
+        when(userService.getUserById(22L)).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return new UserResponseDTO(22L, "John Doe", "john.doe@example.com", "Software Developer");
+        });
+
+        // When
+        MvcResult result = mockMvc.perform(get("/api/async/users/22"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        // Then
+        try {
+            mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(jsonPath("$.title").value("Server Timeout"));
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    @DisplayName("Should answer with 504 without retry advice when the update outlasts the write timeout")
+    void updateUser_Timeout() throws Exception {
+        // Given
+        CountDownLatch release = new CountDownLatch(1);
+        when(userService.updateUser(eq(23L), any(UserDTO.class))).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return new UserResponseDTO(23L, "John Doe", "john.doe@example.com", "Developer", 1L);
+        });
+
+        // When
+        MvcResult result = mockMvc.perform(put("/api/async/users/23")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"John Doe\",\"email\":\"john.doe@example.com\",\"description\":\"Developer\"}"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        // Then
+        try {
+            mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isGatewayTimeout())
+                .andExpect(jsonPath("$.title").value("Write Outcome Unknown"))
+                .andExpect(jsonPath("$.detail").value(not(containsString("retry"))));
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    @DisplayName("Should reject a lookup by ids instead of returning a page - HTTP 400")
+    void getUsersPage_WithIds_BadRequest() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/api/async/users").param("ids", "1,2"))
+            .andExpect(status().isBadRequest());
+        verify(userService, never()).getUsersPage(any(), any());
+    }
+}
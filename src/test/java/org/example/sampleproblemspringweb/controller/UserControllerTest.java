@@ -1,7 +1,16 @@
 package org.example.sampleproblemspringweb.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.sampleproblemspringweb.cache.UserResponseCache;
+import org.example.sampleproblemspringweb.config.UserProperties;
+import org.example.sampleproblemspringweb.dto.ProblemEntryDTO;
+import org.example.sampleproblemspringweb.dto.UserBatchItemDTO;
+import org.example.sampleproblemspringweb.dto.UserBatchResultDTO;
 import org.example.sampleproblemspringweb.dto.UserDTO;
+import org.example.sampleproblemspringweb.dto.UserDeleteResultDTO;
+import org.example.sampleproblemspringweb.dto.UserLookupResultDTO;
+import org.example.sampleproblemspringweb.dto.UserPageDTO;
 import org.example.sampleproblemspringweb.dto.UserResponseDTO;
 import org.example.sampleproblemspringweb.exception.EmailAlreadyExistsException;
 import org.example.sampleproblemspringweb.exception.UserNotFoundException;
@@ -12,18 +21,24 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -36,11 +51,17 @@ class UserControllerTest {
     @Mock
     private UserService userService;
 
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @Spy
+    private UserResponseCache responseCache =
+        new UserResponseCache(new UserProperties(), new ObjectMapper(), new SimpleMeterRegistry());
+
     @InjectMocks
     private UserController userController;
 
     private MockMvc mockMvc;
-    private ObjectMapper objectMapper;
 
     private UserDTO testUserDTO;
     private UserResponseDTO testUserResponseDTO;
@@ -50,7 +71,6 @@ class UserControllerTest {
         mockMvc = MockMvcBuilders.standaloneSetup(userController)
             .setControllerAdvice() // This allows exceptions to be thrown normally
             .build();
-        objectMapper = new ObjectMapper();
 
         testUserDTO = new UserDTO("John Doe", "john.doe@example.com", "Software Developer");
         testUserResponseDTO = new UserResponseDTO(1L, "John Doe", "john.doe@example.com", "Software Developer");
@@ -114,6 +134,48 @@ class UserControllerTest {
         verify(userService).createUser(any(UserDTO.class));
     }
 
+    @Test
+    @DisplayName("Should create batch of users via REST endpoint - HTTP 201")
+    void createUsers_AllCreated_Returns201() throws Exception {
+        // Given
+        UserBatchResultDTO result = new UserBatchResultDTO(1, 0,
+            List.of(UserBatchItemDTO.created(0, testUserResponseDTO)));
+        when(userService.createUsers(anyList())).thenReturn(result);
+
+        // When & Then
+        mockMvc.perform(post("/api/users/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(List.of(testUserDTO))))
+            .andExpect(status().isCreated())
+            .andExpect(jsonPath("$.created").value(1))
+            .andExpect(jsonPath("$.items[0].status").value(201))
+            .andExpect(jsonPath("$.items[0].user.id").value(1L));
+
+        verify(userService).createUsers(anyList());
+    }
+
+    @Test
+    @DisplayName("Should return 207 when some batch entries fail")
+    void createUsers_PartialFailure_Returns207() throws Exception {
+        // Given
+        ProblemEntryDTO problem = ProblemEntryDTO.from(new EmailAlreadyExistsException("john.doe@example.com"));
+        UserBatchResultDTO result = new UserBatchResultDTO(1, 1, List.of(
+            UserBatchItemDTO.created(0, testUserResponseDTO),
+            UserBatchItemDTO.failed(1, problem)));
+        when(userService.createUsers(anyList())).thenReturn(result);
+
+        // When & Then
+        mockMvc.perform(post("/api/users/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(List.of(testUserDTO, testUserDTO))))
+            .andExpect(status().isMultiStatus())
+            .andExpect(jsonPath("$.failed").value(1))
+            .andExpect(jsonPath("$.items[1].status").value(409))
+            .andExpect(jsonPath("$.items[1].problem.title").value("Email Already Exists"));
+
+        verify(userService).createUsers(anyList());
+    }
+
     @Test
     @DisplayName("Should get user by ID successfully - HTTP 200")
     void getUserById_Success() throws Exception {
@@ -122,12 +184,12 @@ class UserControllerTest {
         when(userService.getUserById(userId)).thenReturn(testUserResponseDTO);
 
         // When
-        ResponseEntity<UserResponseDTO> response = userController.getUserById(userId);
+        ResponseEntity<byte[]> response = userController.getUserById(userId, null);
 
         // Then
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(response.getBody()).isNotNull();
-        assertThat(response.getBody().getId()).isEqualTo(1L);
+        assertThat(objectMapper.readValue(response.getBody(), UserResponseDTO.class).getId()).isEqualTo(1L);
 
         verify(userService).getUserById(userId);
     }
@@ -150,6 +212,71 @@ class UserControllerTest {
         verify(userService).getUserById(userId);
     }
 
+    @Test
+    @DisplayName("Should return the user version as a strong ETag")
+    void getUserById_RestEndpoint_ReturnsETag() throws Exception {
+        // Given
+        when(userService.getUserById(1L))
+            .thenReturn(new UserResponseDTO(1L, "John Doe", "john.doe@example.com", "Software Developer", 3L));
+
+        // When & Then
+        mockMvc.perform(get("/api/users/{id}", 1L))
+            .andExpect(status().isOk())
+            .andExpect(header().string("ETag", "\"3\""))
+            .andExpect(jsonPath("$.version").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("Should serve a repeated read from the response cache without calling the service")
+    void getUserById_RestEndpoint_CacheHit() throws Exception {
+        // Given
+        when(userService.getUserById(1L))
+            .thenReturn(new UserResponseDTO(1L, "John Doe", "john.doe@example.com", "Software Developer", 3L));
+        mockMvc.perform(get("/api/users/{id}", 1L)).andExpect(status().isOk());
+
+        // When & Then
+        mockMvc.perform(get("/api/users/{id}", 1L))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+            .andExpect(header().string("ETag", "\"3\""))
+            .andExpect(jsonPath("$.email").value("john.doe@example.com"));
+        mockMvc.perform(get("/api/users/{id}", 1L).header("If-None-Match", "\"3\""))
+            .andExpect(status().isNotModified());
+
+        verify(userService, times(1)).getUserById(1L);
+        verify(userService, never()).getUserVersion(anyLong());
+    }
+
+    @Test
+    @DisplayName("Should answer a current If-None-Match with 304 without loading the user")
+    void getUserById_IfNoneMatchCurrent_Returns304() throws Exception {
+        // Given
+        when(userService.getUserVersion(1L)).thenReturn(Optional.of(3L));
+
+        // When & Then
+        mockMvc.perform(get("/api/users/{id}", 1L).header("If-None-Match", "\"2\", \"3\""))
+            .andExpect(status().isNotModified())
+            .andExpect(header().string("ETag", "\"3\""))
+            .andExpect(content().string(""));
+
+        verify(userService, never()).getUserById(anyLong());
+    }
+
+    @Test
+    @DisplayName("Should return the full user when If-None-Match is stale")
+    void getUserById_IfNoneMatchStale_Returns200() throws Exception {
+        // Given
+        when(userService.getUserVersion(1L)).thenReturn(Optional.of(4L));
+        when(userService.getUserById(1L))
+            .thenReturn(new UserResponseDTO(1L, "John Doe", "john.doe@example.com", "Software Developer", 4L));
+
+        // When & Then
+        mockMvc.perform(get("/api/users/{id}", 1L).header("If-None-Match", "\"3\""))
+            .andExpect(status().isOk())
+            .andExpect(header().string("ETag", "\"4\""))
+            .andExpect(jsonPath("$.id").value(1L));
+    }
+
     @Test
     @DisplayName("Should return 404 when user not found")
     void getUserById_NotFound_Returns404() throws Exception {
@@ -170,47 +297,148 @@ class UserControllerTest {
     }
 
     @Test
-    @DisplayName("Should get all users successfully - HTTP 200")
-    void getAllUsers_Success() throws Exception {
+    @DisplayName("Should get the first page with the default size - HTTP 200")
+    void getUsersPage_Success() throws Exception {
         // Given
         UserResponseDTO user1 = new UserResponseDTO(1L, "John Doe", "john@example.com", "Developer");
         UserResponseDTO user2 = new UserResponseDTO(2L, "Jane Smith", "jane@example.com", "Manager");
-        List<UserResponseDTO> users = Arrays.asList(user1, user2);
-
-        when(userService.getAllUsers()).thenReturn(users);
+        when(userService.getUsersPage(null, null)).thenReturn(new UserPageDTO(Arrays.asList(user1, user2), 20, null));
+        when(userService.getUsersVersion()).thenReturn("abc-7");
 
         // When
-        ResponseEntity<List<UserResponseDTO>> response = userController.getAllUsers();
+        ResponseEntity<UserPageDTO> response = userController.getUsersPage(null, null, null);
 
         // Then
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getETag()).isEqualTo("\"abc-7\"");
         assertThat(response.getBody()).isNotNull();
-        assertThat(response.getBody()).hasSize(2);
+        assertThat(response.getBody().getContent()).hasSize(2);
 
-        verify(userService).getAllUsers();
+        verify(userService).getUsersPage(null, null);
     }
 
     @Test
-    @DisplayName("Should get all users successfully via REST endpoint")
-    void getAllUsers_RestEndpoint_Success() throws Exception {
+    @DisplayName("Should answer GET without parameters with the first page, not every user")
+    void getUsersPage_NoParameters_RestEndpoint_FirstPage() throws Exception {
         // Given
         UserResponseDTO user1 = new UserResponseDTO(1L, "John Doe", "john@example.com", "Developer");
         UserResponseDTO user2 = new UserResponseDTO(2L, "Jane Smith", "jane@example.com", "Manager");
-        List<UserResponseDTO> users = Arrays.asList(user1, user2);
-
-        when(userService.getAllUsers()).thenReturn(users);
+        when(userService.getUsersPage(null, null)).thenReturn(new UserPageDTO(Arrays.asList(user1, user2), 20, null));
 
         // When & Then
         mockMvc.perform(get("/api/users"))
             .andExpect(status().isOk())
             .andExpect(content().contentType(MediaType.APPLICATION_JSON))
-            .andExpect(jsonPath("$").isArray())
-            .andExpect(jsonPath("$[0].id").value(1L))
-            .andExpect(jsonPath("$[0].name").value("John Doe"))
-            .andExpect(jsonPath("$[1].id").value(2L))
-            .andExpect(jsonPath("$[1].name").value("Jane Smith"));
+            .andExpect(jsonPath("$.content[0].id").value(1L))
+            .andExpect(jsonPath("$.content[0].name").value("John Doe"))
+            .andExpect(jsonPath("$.content[1].id").value(2L))
+            .andExpect(jsonPath("$.limit").value(20));
+
+        verify(userService).getUsersPage(null, null);
+    }
+
+    @Test
+    @DisplayName("Should answer a current If-None-Match on a page with 304 without querying users")
+    void getUsersPage_IfNoneMatchCurrent_Returns304() throws Exception {
+        // Given
+        when(userService.getUsersVersion()).thenReturn("abc-7");
+
+        // When & Then
+        mockMvc.perform(get("/api/users").header("If-None-Match", "\"abc-7\""))
+            .andExpect(status().isNotModified())
+            .andExpect(header().string("ETag", "\"abc-7\""));
+
+        verify(userService, never()).getUsersPage(any(), any());
+    }
+
+    @Test
+    @DisplayName("Should pass the If-Match version to the service on update")
+    void updateUser_IfMatch_PassesVersion() throws Exception {
+        // Given
+        when(userService.updateUser(eq(1L), any(UserDTO.class), eq(3L)))
+            .thenReturn(new UserResponseDTO(1L, "John Doe", "john.doe@example.com", "Software Developer", 4L));
+
+        // When & Then
+        mockMvc.perform(put("/api/users/{id}", 1L)
+                .header("If-Match", "\"3\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(testUserDTO)))
+            .andExpect(status().isOk())
+            .andExpect(header().string("ETag", "\"4\""));
+
+        verify(userService).updateUser(eq(1L), any(UserDTO.class), eq(3L));
+    }
+
+    @Test
+    @DisplayName("Should get users page via REST endpoint when limit is given")
+    void getUsersPage_RestEndpoint_Success() throws Exception {
+        // Given
+        UserResponseDTO user1 = new UserResponseDTO(6L, "John Doe", "john@example.com", "Developer");
+        UserResponseDTO user2 = new UserResponseDTO(7L, "Jane Smith", "jane@example.com", "Manager");
+        UserPageDTO page = new UserPageDTO(Arrays.asList(user1, user2), 2, 7L);
+
+        when(userService.getUsersPage(5L, 2)).thenReturn(page);
+
+        // When & Then
+        mockMvc.perform(get("/api/users").param("after", "5").param("limit", "2"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+            .andExpect(jsonPath("$.content[0].id").value(6L))
+            .andExpect(jsonPath("$.content[1].id").value(7L))
+            .andExpect(jsonPath("$.limit").value(2))
+            .andExpect(jsonPath("$.nextCursor").value(7L));
+
+        verify(userService).getUsersPage(5L, 2);
+    }
+
+    @Test
+    @DisplayName("Should get users page with the default size when only the cursor is given")
+    void getUsersPage_AfterWithoutLimit_UsesDefaultSize() throws Exception {
+        // Given
+        UserResponseDTO user = new UserResponseDTO(101L, "John Doe", "john@example.com", "Developer");
+        when(userService.getUsersPage(100L, null)).thenReturn(new UserPageDTO(List.of(user), 20, null));
+
+        // When & Then
+        mockMvc.perform(get("/api/users").param("after", "100"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.content[0].id").value(101L))
+            .andExpect(jsonPath("$.limit").value(20));
+
+        verify(userService).getUsersPage(100L, null);
+    }
+
+    @Test
+    @DisplayName("Should stream all users as NDJSON via REST endpoint")
+    @SuppressWarnings("unchecked")
+    void exportUsers_RestEndpoint_StreamsNdjson() throws Exception {
+        // Given
+        UserResponseDTO user1 = new UserResponseDTO(1L, "John Doe", "john@example.com", "Developer");
+        UserResponseDTO user2 = new UserResponseDTO(2L, "Jane Smith", "jane@example.com", "Manager");
+        when(userService.exportUsers(any(Consumer.class))).thenAnswer(invocation -> {
+            Consumer<UserResponseDTO> sink = invocation.getArgument(0);
+            sink.accept(user1);
+            sink.accept(user2);
+            return 2L;
+        });
+
+        // When
+        MvcResult result = mockMvc.perform(get("/api/users/export"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        // Then
+        String body = mockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+            .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertThat(body).endsWith("\n");
+        assertThat(lines).hasSize(2);
+        assertThat(objectMapper.readValue(lines[0], UserResponseDTO.class).getEmail()).isEqualTo("john@example.com");
+        assertThat(objectMapper.readValue(lines[1], UserResponseDTO.class).getId()).isEqualTo(2L);
 
-        verify(userService).getAllUsers();
+        verify(userService).exportUsers(any(Consumer.class));
     }
 
     @Test
@@ -223,7 +451,7 @@ class UserControllerTest {
         when(userService.updateUser(eq(userId), any(UserDTO.class))).thenReturn(updatedResponse);
 
         // When
-        ResponseEntity<UserResponseDTO> response = userController.updateUser(userId, testUserDTO);
+        ResponseEntity<UserResponseDTO> response = userController.updateUser(userId, testUserDTO, null);
 
         // Then
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
@@ -345,5 +573,66 @@ class UserControllerTest {
 
         verify(userService).deleteUser(userId);
     }
-}
 
+    @Test
+    @DisplayName("Should delete users in bulk via REST endpoint - HTTP 200")
+    void deleteUsers_RestEndpoint_Success() throws Exception {
+        // Given
+        when(userService.deleteUsers(List.of(1L, 2L, 3L))).thenReturn(new UserDeleteResultDTO(3, 2));
+
+        // When & Then
+        mockMvc.perform(delete("/api/users").param("ids", "1,2,3"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.requested").value(3))
+            .andExpect(jsonPath("$.deleted").value(2));
+
+        verify(userService).deleteUsers(List.of(1L, 2L, 3L));
+    }
+
+    @Test
+    @DisplayName("Should get users by IDs via REST endpoint and list missing IDs")
+    void getUsersByIds_RestEndpoint_Success() throws Exception {
+        // Given
+        when(userService.getUsersByIds(List.of(1L, 999L)))
+            .thenReturn(new UserLookupResultDTO(List.of(testUserResponseDTO), List.of(999L)));
+
+        // When & Then
+        mockMvc.perform(get("/api/users").param("ids", "1,999"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.users[0].id").value(1))
+            .andExpect(jsonPath("$.missing[0]").value(999));
+
+        verify(userService).getUsersByIds(List.of(1L, 999L));
+        verify(userService, never()).getUsersPage(any(), any());
+    }
+
+    @Test
+    @DisplayName("Should reject IDs combined with paging parameters - HTTP 400")
+    void getUsersByIds_WithPagingParameters_BadRequest() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/api/users").param("ids", "1,2").param("limit", "10"))
+            .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/users").param("ids", "1,2").param("after", "5"))
+            .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(userService);
+    }
+
+    @Test
+    @DisplayName("Should get users by IDs from a request body")
+    void getUsersByIdsFromBody_RestEndpoint_Success() throws Exception {
+        // Given
+        when(userService.getUsersByIds(List.of(1L, 2L)))
+            .thenReturn(new UserLookupResultDTO(List.of(testUserResponseDTO), List.of(2L)));
+
+        // When & Then
+        mockMvc.perform(post("/api/users/lookup")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[1, 2]"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.users.length()").value(1))
+            .andExpect(jsonPath("$.missing[0]").value(2));
+
+        verify(userService).getUsersByIds(List.of(1L, 2L));
+    }
+}
@@ -0,0 +1,65 @@
+package org.example.sampleproblemspringweb.dto;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Baseline for Jackson serialization of {@link UserResponseDTO} and of the lists returned by
+ * {@code GET /api/users}, using an ObjectMapper configured like Spring Boot's.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserJsonBenchmark {
+
+    private ObjectWriter userWriter;
+    private ObjectWriter listWriter;
+    private UserResponseDTO user;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        userWriter = objectMapper.writerFor(UserResponseDTO.class);
+        listWriter = objectMapper.writerFor(objectMapper.getTypeFactory().constructCollectionType(List.class, UserResponseDTO.class));
+        user = new UserResponseDTO(1L, "John Doe", "john.doe@example.com", "Software Developer");
+    }
+
+    @Benchmark
+    public byte[] serializeUser() throws Exception {
+        return userWriter.writeValueAsBytes(user);
+    }
+
+    @Benchmark
+    public byte[] serializeUserList(UserList list) throws Exception {
+        return listWriter.writeValueAsBytes(list.users);
+    }
+
+    @State(Scope.Benchmark)
+    public static class UserList {
+
+        /**
+         * Default page size and the page size limit
+         */
+        @Param({"20", "100"})
+        private int size;
+
+        private List<UserResponseDTO> users;
+
+        @Setup
+        public void setUp() {
+            users = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                users.add(new UserResponseDTO((long) i, "User " + i, "user" + i + "@example.com", "Software Developer"));
+            }
+        }
+    }
+}
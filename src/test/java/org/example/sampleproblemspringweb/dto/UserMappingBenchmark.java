@@ -0,0 +1,31 @@
+package org.example.sampleproblemspringweb.dto;
+
+import org.example.sampleproblemspringweb.model.User;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Baseline for {@link UserResponseDTO#from}, the entity-to-DTO copy on the write paths.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserMappingBenchmark {
+
+    private User user;
+
+    @Setup
+    public void setUp() {
+        user = new User("John Doe", "john.doe@example.com", "Software Developer");
+        user.setId(1L);
+    }
+
+    @Benchmark
+    public UserResponseDTO mapToResponseDTO() {
+        return UserResponseDTO.from(user);
+    }
+}
@@ -0,0 +1,59 @@
+package org.example.sampleproblemspringweb.exception;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.zalando.problem.jackson.ProblemModule;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("ExpectedProblem Unit Tests")
+class ExpectedProblemTest {
+
+    @AfterEach
+    void tearDown() {
+        ExpectedProblem.setStackTraces(true);
+    }
+
+    @Test
+    @DisplayName("Should capture the stack trace by default")
+    void stackTraces_Enabled_Captured() {
+        // When
+        UserNotFoundException problem = new UserNotFoundException(42L);
+
+        // Then
+        assertThat(problem.getStackTrace()).isNotEmpty();
+    }
+
+    @Test
+    @DisplayName("Should skip the stack trace and render a small body when disabled")
+    void stackTraces_Disabled_SkipsCaptureAndRendersSmallBody() throws Exception {
+        // Given
+        ExpectedProblem.setStackTraces(false);
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new ProblemModule().withStackTraces(false));
+
+        // When
+        UserNotFoundException problem = new UserNotFoundException(42L);
+        String json = objectMapper.writeValueAsString(problem);
+
+        // Then
+        assertThat(problem.getStackTrace()).isEmpty();
+        assertThat(json)
+            .contains("\"title\":\"User Not Found\"", "\"status\":404", "\"detail\":\"User with id 42 not found\"")
+            .doesNotContain("stacktrace")
+            .hasSizeLessThan(200);
+    }
+
+    @Test
+    @DisplayName("Should truncate an oversized email in the detail")
+    void emailAlreadyExists_LongEmail_Truncated() {
+        // When
+        EmailAlreadyExistsException problem = new EmailAlreadyExistsException("a".repeat(10_000) + "@example.com");
+
+        // Then
+        assertThat(problem.getDetail())
+            .hasSize("User with email ".length() + ExpectedProblem.MAX_DETAIL_VALUE_LENGTH + "...".length() + " already exists".length())
+            .endsWith("... already exists");
+    }
+}
@@ -0,0 +1,60 @@
+package org.example.sampleproblemspringweb.exception;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.zalando.problem.jackson.ProblemModule;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of a routine 404: creating {@link UserNotFoundException} and rendering its problem body.
+ * {@code stackTraces=true} is the default configuration (trace captured and serialized),
+ * {@code false} the lean-problems profile. The throw happens a few frames deep, as it would
+ * below the controller, service and proxy frames of a real request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProblemRenderingBenchmark {
+
+    @Param({"true", "false"})
+    private boolean stackTraces;
+
+    private ObjectWriter writer;
+
+    @Setup
+    public void setUp() {
+        ExpectedProblem.setStackTraces(stackTraces);
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+            .modules(new ProblemModule().withStackTraces(stackTraces))
+            .build();
+        writer = objectMapper.writer();
+    }
+
+    @TearDown
+    public void tearDown() {
+        ExpectedProblem.setStackTraces(true);
+    }
+
+    @Benchmark
+    public byte[] notFound() throws Exception {
+        try {
+            lookup(8, 42L);
+            throw new IllegalStateException("unreachable");
+        } catch (UserNotFoundException e) {
+            return writer.writeValueAsBytes(e);
+        }
+    }
+
+    private static void lookup(int depth, Long id) {
+        if (depth == 0) {
+            throw new UserNotFoundException(id);
+        }
+        lookup(depth - 1, id);
+    }
+}
@@ -0,0 +1,127 @@
+package org.example.sampleproblemspringweb.logging;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("WideEventFilter Unit Tests")
+class WideEventFilterTest {
+
+    private List<Map<String, Object>> events;
+    private WideEventFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        events = new ArrayList<>();
+        filter = new WideEventFilter() {
+            @Override
+            void emit(Map<String, Object> event) {
+                events.add(event);
+            }
+        };
+    }
+
+    @Test
+    @DisplayName("Should emit one event with endpoint, path variables, status, timings, SQL count and added fields")
+    void doFilter_Request_EmitsOneWideEvent() throws Exception {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users/7");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain(new jakarta.servlet.http.HttpServlet() {
+            @Override
+            protected void service(jakarta.servlet.http.HttpServletRequest req, jakarta.servlet.http.HttpServletResponse res) {
+                req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/users/{id}");
+                req.setAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE, Map.of("id", "7"));
+                RequestLogContext.put("email", "john.doe@example.com");
+                RequestLogContext.recordTiming("controller", TimeUnit.MILLISECONDS.toNanos(3));
+                RequestLogContext.recordTiming("service", TimeUnit.MILLISECONDS.toNanos(1));
+                RequestLogContext.recordTiming("service", TimeUnit.MILLISECONDS.toNanos(1));
+                RequestLogContext.countSqlStatement();
+                res.setStatus(200);
+            }
+        });
+
+        // When
+        filter.doFilter(request, response, chain);
+
+        // Then
+        assertThat(events).hasSize(1);
+        assertThat(events.get(0))
+            .containsEntry("endpoint", "GET /api/users/{id}")
+            .containsEntry("id", "7")
+            .containsEntry("status", 200)
+            .containsEntry("email", "john.doe@example.com")
+            .containsEntry("controllerMs", 3.0)
+            .containsEntry("serviceMs", 2.0)
+            .containsEntry("sqlStatements", 1)
+            .containsKey("durationMs");
+    }
+
+    @Test
+    @DisplayName("Should ignore context calls outside a request and close the context after each request")
+    void requestLogContext_OutsideRequest_NoOp() throws Exception {
+        // Given
+        RequestLogContext.put("email", "ignored@example.com");
+        RequestLogContext.countSqlStatement();
+
+        // When
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/users"), new MockHttpServletResponse(), new MockFilterChain());
+        RequestLogContext.put("late", true);
+
+        // Then
+        assertThat(events).hasSize(1);
+        assertThat(events.get(0))
+            .containsEntry("endpoint", "GET /api/users")
+            .containsEntry("sqlStatements", 0)
+            .doesNotContainKeys("email", "late");
+    }
+
+    @Test
+    @DisplayName("Should emit the event of an async request on completion with the final status and worker fields")
+    void doFilter_AsyncRequest_EmitsOnCompletion() throws Exception {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/async/users/7");
+        request.setAsyncSupported(true);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        RequestLogContextTaskDecorator decorator = new RequestLogContextTaskDecorator();
+        List<Runnable> worker = new ArrayList<>();
+        MockFilterChain chain = new MockFilterChain(new jakarta.servlet.http.HttpServlet() {
+            @Override
+            protected void service(jakarta.servlet.http.HttpServletRequest req, jakarta.servlet.http.HttpServletResponse res) {
+                req.startAsync();
+                worker.add(decorator.decorate(() -> {
+                    RequestLogContext.recordTiming("service", TimeUnit.MILLISECONDS.toNanos(2));
+                    RequestLogContext.countSqlStatement();
+                }));
+            }
+        });
+
+        // When
+        filter.doFilter(request, response, chain);
+        assertThat(events).isEmpty();
+        CompletableFuture.runAsync(worker.get(0)).get(5, TimeUnit.SECONDS);
+        response.setStatus(404);
+        ((MockAsyncContext) request.getAsyncContext()).complete();
+
+        // Then
+        assertThat(events).hasSize(1);
+        assertThat(events.get(0))
+            .containsEntry("status", 404)
+            .containsEntry("async", true)
+            .containsEntry("serviceMs", 2.0)
+            .containsEntry("sqlStatements", 1);
+    }
+}
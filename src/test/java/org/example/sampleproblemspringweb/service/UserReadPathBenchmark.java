@@ -0,0 +1,101 @@
+package org.example.sampleproblemspringweb.service;
+
+import org.example.sampleproblemspringweb.SampleProblemSpringWebApplication;
+import org.example.sampleproblemspringweb.dto.UserDTO;
+import org.example.sampleproblemspringweb.dto.UserResponseDTO;
+import org.example.sampleproblemspringweb.model.User;
+import org.example.sampleproblemspringweb.repository.UserRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Compares the entity read path (load managed {@link User}, copy into a DTO) with the
+ * constructor-expression projections used by {@link UserService}.
+ * Run with {@code -prof gc} to compare allocations per read ({@code gc.alloc.rate.norm}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserReadPathBenchmark {
+
+    @Param({"1000"})
+    private int users;
+
+    private ConfigurableApplicationContext context;
+    private UserRepository userRepository;
+    private TransactionTemplate readOnlyTransaction;
+    private long firstId;
+    private long nextOffset;
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        context = new SpringApplicationBuilder(SampleProblemSpringWebApplication.class)
+            .web(WebApplicationType.NONE)
+            .properties(
+                "spring.datasource.url=jdbc:h2:mem:read-path-benchmark",
+                "spring.jpa.show-sql=false",
+                "logging.level.org.hibernate.SQL=WARN",
+                "logging.level.org.example.sampleproblemspringweb=WARN")
+            .run();
+        userRepository = context.getBean(UserRepository.class);
+        readOnlyTransaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnlyTransaction.setReadOnly(true);
+
+        UserService userService = context.getBean(UserService.class);
+        List<UserDTO> batch = new ArrayList<>();
+        for (int i = 0; i < users; i++) {
+            batch.add(new UserDTO("Benchmark User " + i, "benchmark-" + i + "@example.com", "Read path benchmark"));
+        }
+        userService.createUsers(batch);
+        firstId = userRepository.findAllResponses().get(0).getId();
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+
+    @Benchmark
+    public UserResponseDTO getByIdEntity() {
+        Long id = nextId();
+        return readOnlyTransaction.execute(status -> toResponse(userRepository.findById(id).orElseThrow()));
+    }
+
+    @Benchmark
+    public UserResponseDTO getByIdProjection() {
+        Long id = nextId();
+        return readOnlyTransaction.execute(status -> userRepository.findResponseById(id).orElseThrow());
+    }
+
+    @Benchmark
+    public List<UserResponseDTO> getAllEntity() {
+        return readOnlyTransaction.execute(status -> userRepository.findAll().stream()
+            .map(UserReadPathBenchmark::toResponse)
+            .collect(Collectors.toList()));
+    }
+
+    @Benchmark
+    public List<UserResponseDTO> getAllProjection() {
+        return readOnlyTransaction.execute(status -> userRepository.findAllResponses());
+    }
+
+    private Long nextId() {
+        return firstId + (nextOffset++ % users);
+    }
+
+    private static UserResponseDTO toResponse(User user) {
+        return new UserResponseDTO(user.getId(), user.getName(), user.getEmail(), user.getDescription());
+    }
+}
@@ -0,0 +1,105 @@
+package org.example.sampleproblemspringweb.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.example.sampleproblemspringweb.dto.UserDTO;
+import org.example.sampleproblemspringweb.exception.EmailAlreadyExistsException;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:constraint-mode",
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "app.users.create.uniqueness-check=constraint"
+})
+@DisplayName("UserService Constraint Mode Integration Tests")
+class UserServiceConstraintModeTest {
+
+    private static final int CLIENTS = 8;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    @DisplayName("Should issue a single INSERT per create and no existsByEmail query")
+    void createUser_OneStatementPerCreate() {
+        // Given
+        int creates = 20;
+
+        // When
+        for (int i = 0; i < creates; i++) {
+            userService.createUser(new UserDTO("User " + i, "sequential-" + i + "@example.com", "Sequential user"));
+        }
+
+        // Then - at most one extra statement when the pooled sequence hands out a new block
+        assertThat(statistics.getQueryExecutionCount()).isZero();
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(creates);
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(creates + 1);
+    }
+
+    @Test
+    @DisplayName("Should create exactly one user and answer 409 to every concurrent duplicate")
+    void createUser_ConcurrentDuplicates_OneWinsRestConflict() throws Exception {
+        // Given
+        UserDTO userDTO = new UserDTO("Racing User", "racing@example.com", "Concurrent create");
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(CLIENTS);
+        List<Future<?>> futures = new ArrayList<>();
+
+        // When
+        try {
+            for (int i = 0; i < CLIENTS; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return userService.createUser(userDTO);
+                }));
+            }
+            start.countDown();
+
+            int created = 0;
+            int conflicts = 0;
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                    created++;
+                } catch (ExecutionException e) {
+                    assertThat(e.getCause()).isInstanceOf(EmailAlreadyExistsException.class);
+                    conflicts++;
+                }
+            }
+
+            // Then
+            assertThat(created).isEqualTo(1);
+            assertThat(conflicts).isEqualTo(CLIENTS - 1);
+            assertThat(statistics.getQueryExecutionCount()).isZero();
+            assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(CLIENTS + 1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
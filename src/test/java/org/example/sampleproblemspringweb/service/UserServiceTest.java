@@ -1,9 +1,22 @@
 package org.example.sampleproblemspringweb.service;
 
+import jakarta.validation.Validation;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validator;
+import org.example.sampleproblemspringweb.cache.EmailIndex;
+import org.example.sampleproblemspringweb.cache.MissingUserCache;
+import org.example.sampleproblemspringweb.cache.UserResponseCache;
+import org.example.sampleproblemspringweb.config.UserProperties;
+import org.example.sampleproblemspringweb.dto.UserBatchResultDTO;
 import org.example.sampleproblemspringweb.dto.UserDTO;
+import org.example.sampleproblemspringweb.dto.UserDeleteResultDTO;
+import org.example.sampleproblemspringweb.dto.UserLookupResultDTO;
+import org.example.sampleproblemspringweb.dto.UserPageDTO;
 import org.example.sampleproblemspringweb.dto.UserResponseDTO;
+import org.example.sampleproblemspringweb.exception.BatchTooLargeException;
 import org.example.sampleproblemspringweb.exception.EmailAlreadyExistsException;
 import org.example.sampleproblemspringweb.exception.UserNotFoundException;
+import org.example.sampleproblemspringweb.exception.UserVersionMismatchException;
 import org.example.sampleproblemspringweb.model.User;
 import org.example.sampleproblemspringweb.repository.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -12,16 +25,29 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
 
+import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyIterable;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -31,6 +57,29 @@ class UserServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Spy
+    private UserProperties userProperties = new UserProperties();
+
+    @Spy
+    private Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+    @Spy
+    private UserTableVersion tableVersion = new UserTableVersion();
+
+    @Mock
+    private UserResponseCache responseCache;
+
+    @Spy
+    private MissingUserCache missingUsers = new MissingUserCache(new UserProperties(), new SimpleMeterRegistry());
+
+    // Emails the index streams on build(), kept apart from the repository mock the service queries
+    private final List<String> indexedEmails = new ArrayList<>();
+
+    // Not built unless a test calls build(), so every email falls through to the query
+    @Spy
+    private EmailIndex emailIndex = new EmailIndex(mock(UserRepository.class, invocation -> indexedEmails.stream()),
+        mock(PlatformTransactionManager.class), Runnable::run, new UserProperties(), new SimpleMeterRegistry());
+
     @InjectMocks
     private UserService userService;
 
@@ -41,6 +90,7 @@ class UserServiceTest {
     void setUp() {
         testUser = new User("John Doe", "john.doe@example.com", "Software Developer");
         testUser.setId(1L);
+        testUser.setVersion(3L);
 
         testUserDTO = new UserDTO("John Doe", "john.doe@example.com", "Software Developer");
     }
@@ -50,7 +100,7 @@ class UserServiceTest {
     void createUser_Success() {
         // Given
         when(userRepository.existsByEmail(anyString())).thenReturn(false);
-        when(userRepository.save(any(User.class))).thenReturn(testUser);
+        when(userRepository.saveAndFlush(any(User.class))).thenReturn(testUser);
 
         // When
         UserResponseDTO result = userService.createUser(testUserDTO);
@@ -63,7 +113,7 @@ class UserServiceTest {
         assertThat(result.getDescription()).isEqualTo("Software Developer");
 
         verify(userRepository).existsByEmail("john.doe@example.com");
-        verify(userRepository).save(any(User.class));
+        verify(userRepository).saveAndFlush(any(User.class));
     }
 
     @Test
@@ -78,7 +128,159 @@ class UserServiceTest {
             .hasMessageContaining("john.doe@example.com");
 
         verify(userRepository).existsByEmail("john.doe@example.com");
-        verify(userRepository, never()).save(any(User.class));
+        verify(userRepository, never()).saveAndFlush(any(User.class));
+    }
+
+    @Test
+    @DisplayName("Should create user without existsByEmail query when the email index rules the email out")
+    void createUser_EmailNotIndexed_SkipsExistsQuery() {
+        // Given
+        indexedEmails.add("jane.smith@example.com");
+        emailIndex.build();
+        when(userRepository.saveAndFlush(any(User.class))).thenReturn(testUser);
+
+        // When
+        UserResponseDTO result = userService.createUser(testUserDTO);
+
+        // Then
+        assertThat(result.getId()).isEqualTo(1L);
+        assertThat(emailIndex.mightContain("john.doe@example.com")).isTrue();
+
+        verify(userRepository, never()).existsByEmail(anyString());
+    }
+
+    @Test
+    @DisplayName("Should create user without existsByEmail query in constraint mode")
+    void createUser_ConstraintMode_SkipsExistsQuery() {
+        // Given
+        userProperties.getCreate().setUniquenessCheck(UserProperties.UniquenessCheck.CONSTRAINT);
+        when(userRepository.saveAndFlush(any(User.class))).thenReturn(testUser);
+
+        // When
+        UserResponseDTO result = userService.createUser(testUserDTO);
+
+        // Then
+        assertThat(result.getId()).isEqualTo(1L);
+
+        verify(userRepository).saveAndFlush(any(User.class));
+        verify(userRepository, never()).existsByEmail(anyString());
+    }
+
+    @Test
+    @DisplayName("Should translate email unique constraint violation into EmailAlreadyExistsException")
+    void createUser_ConstraintMode_DuplicateEmail_ThrowsException() {
+        // Given
+        userProperties.getCreate().setUniquenessCheck(UserProperties.UniquenessCheck.CONSTRAINT);
+        when(userRepository.saveAndFlush(any(User.class)))
+            .thenThrow(constraintViolation("PUBLIC.UK_USERS_EMAIL_INDEX_4"));
+
+        // When & Then
+        assertThatThrownBy(() -> userService.createUser(testUserDTO))
+            .isInstanceOf(EmailAlreadyExistsException.class)
+            .hasMessageContaining("john.doe@example.com");
+
+        verify(userRepository, never()).existsByEmail(anyString());
+    }
+
+    @Test
+    @DisplayName("Should rethrow integrity violations of other constraints")
+    void createUser_ConstraintMode_OtherViolation_Rethrown() {
+        // Given
+        userProperties.getCreate().setUniquenessCheck(UserProperties.UniquenessCheck.CONSTRAINT);
+        DataIntegrityViolationException violation = constraintViolation("PUBLIC.CONSTRAINT_NAME_NOT_NULL");
+        when(userRepository.saveAndFlush(any(User.class))).thenThrow(violation);
+
+        // When & Then
+        assertThatThrownBy(() -> userService.createUser(testUserDTO))
+            .isSameAs(violation);
+    }
+
+    @Test
+    @DisplayName("Should update email without existsByEmail query in constraint mode")
+    void updateUser_ConstraintMode_DuplicateEmail_ThrowsException() {
+        // Given
+        userProperties.getCreate().setUniquenessCheck(UserProperties.UniquenessCheck.CONSTRAINT);
+        UserDTO updateDTO = new UserDTO("John Updated", "existing@example.com", "Senior Developer");
+        when(userRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(testUser));
+        when(userRepository.saveAndFlush(any(User.class)))
+            .thenThrow(constraintViolation("PUBLIC.UK_USERS_EMAIL_INDEX_4"));
+
+        // When & Then
+        assertThatThrownBy(() -> userService.updateUser(1L, updateDTO))
+            .isInstanceOf(EmailAlreadyExistsException.class)
+            .hasMessageContaining("existing@example.com");
+
+        verify(userRepository, never()).existsByEmail(anyString());
+    }
+
+    @Test
+    @DisplayName("Should create valid batch entries and report a problem for each invalid or duplicate entry")
+    @SuppressWarnings("unchecked")
+    void createUsers_MixedBatch_ReportsPerItem() {
+        // Given
+        List<UserDTO> batch = Arrays.asList(
+            new UserDTO("John Doe", "john@example.com", "Developer"),
+            new UserDTO("X", "not-an-email", "Developer"),
+            new UserDTO("Jane Smith", "taken@example.com", "Manager"),
+            new UserDTO("John Again", "john@example.com", "Developer"),
+            new UserDTO("Bob Johnson", "bob@example.com", "Designer"));
+
+        when(userRepository.findExistingEmails(anyCollection())).thenReturn(List.of("taken@example.com"));
+        when(userRepository.saveAll(anyIterable())).thenAnswer(invocation -> {
+            List<User> saved = new ArrayList<>();
+            long id = 100;
+            for (User user : (Iterable<User>) invocation.getArgument(0)) {
+                user.setId(id++);
+                saved.add(user);
+            }
+            return saved;
+        });
+
+        // When
+        UserBatchResultDTO result = userService.createUsers(batch);
+
+        // Then
+        assertThat(result.getCreated()).isEqualTo(2);
+        assertThat(result.getFailed()).isEqualTo(3);
+        assertThat(result.getItems()).extracting("index").containsExactly(0, 1, 2, 3, 4);
+        assertThat(result.getItems()).extracting("status").containsExactly(201, 400, 409, 409, 201);
+        assertThat(result.getItems().get(0).getUser().getId()).isEqualTo(100L);
+        assertThat(result.getItems().get(4).getUser().getId()).isEqualTo(101L);
+        assertThat(result.getItems().get(1).getProblem().getDetail()).contains("email", "name");
+        assertThat(result.getItems().get(3).getProblem().getTitle()).isEqualTo("Email Already Exists");
+
+        verify(userRepository).findExistingEmails(anyCollection());
+        verify(userRepository).saveAll(anyIterable());
+        verify(userRepository).flush();
+        verify(userRepository, never()).existsByEmail(anyString());
+    }
+
+    @Test
+    @DisplayName("Should report a batch losing a race on the unique email constraint as a conflict")
+    void createUsers_ConcurrentDuplicate_ThrowsEmailAlreadyExists() {
+        // Given
+        when(userRepository.findExistingEmails(anyCollection())).thenReturn(List.of());
+        doThrow(constraintViolation("PUBLIC.UK_USERS_EMAIL_INDEX_4")).when(userRepository).flush();
+
+        // When & Then
+        assertThatThrownBy(() -> userService.createUsers(List.of(testUserDTO)))
+            .isInstanceOf(EmailAlreadyExistsException.class)
+            .hasMessageContaining("batch of 1");
+    }
+
+    @Test
+    @DisplayName("Should reject batch larger than the configured maximum")
+    void createUsers_TooLarge_ThrowsException() {
+        // Given
+        userProperties.getBatch().setMaxSize(1);
+        List<UserDTO> batch = List.of(testUserDTO, testUserDTO);
+
+        // When & Then
+        assertThatThrownBy(() -> userService.createUsers(batch))
+            .isInstanceOf(BatchTooLargeException.class)
+            .hasMessageContaining("maximum is 1");
+
+        verifyNoInteractions(userRepository);
     }
 
     @Test
@@ -86,7 +288,8 @@ class UserServiceTest {
     void getUserById_Success() {
         // Given
         Long userId = 1L;
-        when(userRepository.findById(userId)).thenReturn(Optional.of(testUser));
+        when(userRepository.findResponseById(userId))
+            .thenReturn(Optional.of(new UserResponseDTO(1L, "John Doe", "john.doe@example.com", "Software Developer")));
 
         // When
         UserResponseDTO result = userService.getUserById(userId);
@@ -97,7 +300,8 @@ class UserServiceTest {
         assertThat(result.getName()).isEqualTo("John Doe");
         assertThat(result.getEmail()).isEqualTo("john.doe@example.com");
 
-        verify(userRepository).findById(userId);
+        verify(userRepository).findResponseById(userId);
+        verify(userRepository, never()).findById(anyLong());
     }
 
     @Test
@@ -105,56 +309,125 @@ class UserServiceTest {
     void getUserById_NotFound_ThrowsException() {
         // Given
         Long userId = 999L;
-        when(userRepository.findById(userId)).thenReturn(Optional.empty());
+        when(userRepository.findResponseById(userId)).thenReturn(Optional.empty());
 
         // When & Then
         assertThatThrownBy(() -> userService.getUserById(userId))
             .isInstanceOf(UserNotFoundException.class)
             .hasMessageContaining("999");
 
-        verify(userRepository).findById(userId);
+        verify(userRepository).findResponseById(userId);
+    }
+
+    @Test
+    @DisplayName("Should answer a recently missed ID without a query until a user gets that ID")
+    void getUserById_KnownMissing_SkipsQuery() {
+        // Given
+        Long userId = 1L;
+        when(userRepository.findResponseById(userId)).thenReturn(Optional.empty());
+        assertThatThrownBy(() -> userService.getUserById(userId)).isInstanceOf(UserNotFoundException.class);
+
+        // When & Then
+        assertThatThrownBy(() -> userService.getUserById(userId)).isInstanceOf(UserNotFoundException.class);
+        assertThat(userService.getUserVersion(userId)).isEmpty();
+        verify(userRepository, times(1)).findResponseById(userId);
+        verify(userRepository, never()).findVersionById(anyLong());
+
+        // When - the ID is assigned by a create
+        when(userRepository.saveAndFlush(any(User.class))).thenReturn(testUser);
+        userService.createUser(testUserDTO);
+        when(userRepository.findResponseById(userId))
+            .thenReturn(Optional.of(new UserResponseDTO(1L, "John Doe", "john.doe@example.com", "Software Developer")));
+
+        // Then
+        assertThat(userService.getUserById(userId).getId()).isEqualTo(1L);
+        verify(userRepository, times(2)).findResponseById(userId);
     }
 
     @Test
-    @DisplayName("Should get all users successfully")
-    void getAllUsers_Success() {
+    @DisplayName("Should return page with next cursor when more users exist")
+    void getUsersPage_MoreAvailable_ReturnsNextCursor() {
         // Given
-        User user1 = new User("John Doe", "john@example.com", "Developer");
-        user1.setId(1L);
-        User user2 = new User("Jane Smith", "jane@example.com", "Manager");
-        user2.setId(2L);
-        List<User> users = Arrays.asList(user1, user2);
+        UserResponseDTO user1 = new UserResponseDTO(11L, "John Doe", "john@example.com", "Developer");
+        UserResponseDTO user2 = new UserResponseDTO(12L, "Jane Smith", "jane@example.com", "Manager");
+        UserResponseDTO user3 = new UserResponseDTO(13L, "Bob Johnson", "bob@example.com", "Designer");
 
-        when(userRepository.findAll()).thenReturn(users);
+        when(userRepository.findResponsesAfter(10L, Limit.of(3)))
+            .thenReturn(Arrays.asList(user1, user2, user3));
 
         // When
-        List<UserResponseDTO> result = userService.getAllUsers();
+        UserPageDTO result = userService.getUsersPage(10L, 2);
 
         // Then
-        assertThat(result).isNotNull();
-        assertThat(result).hasSize(2);
-        assertThat(result.get(0).getId()).isEqualTo(1L);
-        assertThat(result.get(0).getName()).isEqualTo("John Doe");
-        assertThat(result.get(1).getId()).isEqualTo(2L);
-        assertThat(result.get(1).getName()).isEqualTo("Jane Smith");
+        assertThat(result.getContent()).hasSize(2);
+        assertThat(result.getContent().get(0).getId()).isEqualTo(11L);
+        assertThat(result.getContent().get(1).getId()).isEqualTo(12L);
+        assertThat(result.getLimit()).isEqualTo(2);
+        assertThat(result.getNextCursor()).isEqualTo(12L);
 
-        verify(userRepository).findAll();
+        verify(userRepository).findResponsesAfter(10L, Limit.of(3));
     }
 
     @Test
-    @DisplayName("Should return empty list when no users exist")
-    void getAllUsers_EmptyList() {
+    @DisplayName("Should return last page without next cursor")
+    void getUsersPage_LastPage_NoNextCursor() {
         // Given
-        when(userRepository.findAll()).thenReturn(List.of());
+        UserResponseDTO user1 = new UserResponseDTO(1L, "John Doe", "john@example.com", "Developer");
+
+        when(userRepository.findResponsesAfter(eq(0L), any(Limit.class)))
+            .thenReturn(List.of(user1));
 
         // When
-        List<UserResponseDTO> result = userService.getAllUsers();
+        UserPageDTO result = userService.getUsersPage(null, null);
 
         // Then
-        assertThat(result).isNotNull();
-        assertThat(result).isEmpty();
+        assertThat(result.getContent()).hasSize(1);
+        assertThat(result.getLimit()).isEqualTo(20);
+        assertThat(result.getNextCursor()).isNull();
+
+        verify(userRepository).findResponsesAfter(0L, Limit.of(21));
+    }
+
+    @Test
+    @DisplayName("Should clamp requested page size to configured maximum")
+    void getUsersPage_LimitAboveMax_Clamped() {
+        // Given
+        when(userRepository.findResponsesAfter(eq(0L), any(Limit.class)))
+            .thenReturn(List.of());
+
+        // When
+        UserPageDTO result = userService.getUsersPage(0L, 10_000);
+
+        // Then
+        assertThat(result.getContent()).isEmpty();
+        assertThat(result.getLimit()).isEqualTo(100);
+        assertThat(result.getNextCursor()).isNull();
+
+        verify(userRepository).findResponsesAfter(0L, Limit.of(101));
+    }
 
-        verify(userRepository).findAll();
+    @Test
+    @DisplayName("Should pass every exported user to the sink and close the cursor")
+    void exportUsers_StreamsAllRows() {
+        // Given
+        AtomicBoolean closed = new AtomicBoolean();
+        Stream<UserResponseDTO> rows = Stream.of(
+                new UserResponseDTO(1L, "John Doe", "john@example.com", "Developer"),
+                new UserResponseDTO(2L, "Jane Smith", "jane@example.com", "Manager"))
+            .onClose(() -> closed.set(true));
+        when(userRepository.streamAllForExport()).thenReturn(rows);
+        List<UserResponseDTO> exported = new ArrayList<>();
+
+        // When
+        long count = userService.exportUsers(exported::add);
+
+        // Then
+        assertThat(count).isEqualTo(2);
+        assertThat(exported).extracting(UserResponseDTO::getId).containsExactly(1L, 2L);
+        assertThat(closed).isTrue();
+
+        verify(userRepository).streamAllForExport();
+        verify(userRepository, never()).findAll();
     }
 
     @Test
@@ -164,8 +437,8 @@ class UserServiceTest {
         Long userId = 1L;
         UserDTO updateDTO = new UserDTO("John Updated", "john.doe@example.com", "Senior Developer");
 
-        when(userRepository.findById(userId)).thenReturn(Optional.of(testUser));
-        when(userRepository.save(any(User.class))).thenAnswer(invocation -> {
+        when(userRepository.findByIdForUpdate(userId)).thenReturn(Optional.of(testUser));
+        when(userRepository.saveAndFlush(any(User.class))).thenAnswer(invocation -> {
             User savedUser = invocation.getArgument(0);
             savedUser.setId(1L);
             return savedUser;
@@ -181,8 +454,8 @@ class UserServiceTest {
         assertThat(result.getEmail()).isEqualTo("john.doe@example.com");
         assertThat(result.getDescription()).isEqualTo("Senior Developer");
 
-        verify(userRepository).findById(userId);
-        verify(userRepository).save(any(User.class));
+        verify(userRepository).findByIdForUpdate(userId);
+        verify(userRepository).saveAndFlush(any(User.class));
         verify(userRepository, never()).existsByEmail(anyString());
     }
 
@@ -193,9 +466,9 @@ class UserServiceTest {
         Long userId = 1L;
         UserDTO updateDTO = new UserDTO("John Updated", "john.updated@example.com", "Senior Developer");
 
-        when(userRepository.findById(userId)).thenReturn(Optional.of(testUser));
+        when(userRepository.findByIdForUpdate(userId)).thenReturn(Optional.of(testUser));
         when(userRepository.existsByEmail("john.updated@example.com")).thenReturn(false);
-        when(userRepository.save(any(User.class))).thenAnswer(invocation -> {
+        when(userRepository.saveAndFlush(any(User.class))).thenAnswer(invocation -> {
             User savedUser = invocation.getArgument(0);
             savedUser.setId(1L);
             return savedUser;
@@ -208,9 +481,9 @@ class UserServiceTest {
         assertThat(result).isNotNull();
         assertThat(result.getEmail()).isEqualTo("john.updated@example.com");
 
-        verify(userRepository).findById(userId);
+        verify(userRepository).findByIdForUpdate(userId);
         verify(userRepository).existsByEmail("john.updated@example.com");
-        verify(userRepository).save(any(User.class));
+        verify(userRepository).saveAndFlush(any(User.class));
     }
 
     @Test
@@ -218,15 +491,50 @@ class UserServiceTest {
     void updateUser_NotFound_ThrowsException() {
         // Given
         Long userId = 999L;
-        when(userRepository.findById(userId)).thenReturn(Optional.empty());
+        when(userRepository.findByIdForUpdate(userId)).thenReturn(Optional.empty());
 
         // When & Then
         assertThatThrownBy(() -> userService.updateUser(userId, testUserDTO))
             .isInstanceOf(UserNotFoundException.class)
             .hasMessageContaining("999");
 
-        verify(userRepository).findById(userId);
-        verify(userRepository, never()).save(any(User.class));
+        verify(userRepository).findByIdForUpdate(userId);
+        verify(userRepository, never()).saveAndFlush(any(User.class));
+    }
+
+    @Test
+    @DisplayName("Should reject the update with 412 when the user moved past the If-Match version")
+    void updateUser_StaleVersion_ThrowsException() {
+        // Given
+        Long userId = 1L;
+        when(userRepository.findById(userId)).thenReturn(Optional.of(testUser));
+        String usersVersion = userService.getUsersVersion();
+
+        // When & Then
+        assertThatThrownBy(() -> userService.updateUser(userId, testUserDTO, 2L))
+            .isInstanceOf(UserVersionMismatchException.class)
+            .hasMessageContaining("modified");
+
+        verify(userRepository, never()).saveAndFlush(any(User.class));
+        assertThat(userService.getUsersVersion()).isEqualTo(usersVersion);
+    }
+
+    @Test
+    @DisplayName("Should update and change the users version when the If-Match version is current")
+    void updateUser_CurrentVersion_Success() {
+        // Given
+        Long userId = 1L;
+        when(userRepository.findById(userId)).thenReturn(Optional.of(testUser));
+        when(userRepository.saveAndFlush(any(User.class))).thenReturn(testUser);
+        String usersVersion = userService.getUsersVersion();
+
+        // When
+        UserResponseDTO result = userService.updateUser(userId, testUserDTO, 3L);
+
+        // Then
+        assertThat(result.getVersion()).isEqualTo(3L);
+        assertThat(userService.getUsersVersion()).isNotEqualTo(usersVersion);
+        verify(responseCache).invalidate(userId);
     }
 
     @Test
@@ -236,7 +544,7 @@ class UserServiceTest {
         Long userId = 1L;
         UserDTO updateDTO = new UserDTO("John Updated", "existing@example.com", "Senior Developer");
 
-        when(userRepository.findById(userId)).thenReturn(Optional.of(testUser));
+        when(userRepository.findByIdForUpdate(userId)).thenReturn(Optional.of(testUser));
         when(userRepository.existsByEmail("existing@example.com")).thenReturn(true);
 
         // When & Then
@@ -244,9 +552,9 @@ class UserServiceTest {
             .isInstanceOf(EmailAlreadyExistsException.class)
             .hasMessageContaining("existing@example.com");
 
-        verify(userRepository).findById(userId);
+        verify(userRepository).findByIdForUpdate(userId);
         verify(userRepository).existsByEmail("existing@example.com");
-        verify(userRepository, never()).save(any(User.class));
+        verify(userRepository, never()).saveAndFlush(any(User.class));
     }
 
     @Test
@@ -254,15 +562,16 @@ class UserServiceTest {
     void deleteUser_Success() {
         // Given
         Long userId = 1L;
-        when(userRepository.existsById(userId)).thenReturn(true);
-        doNothing().when(userRepository).deleteById(userId);
+        when(userRepository.deleteUserById(userId)).thenReturn(1);
 
         // When
         userService.deleteUser(userId);
 
         // Then
-        verify(userRepository).existsById(userId);
-        verify(userRepository).deleteById(userId);
+        verify(userRepository).deleteUserById(userId);
+        verify(responseCache).invalidate(userId);
+        verify(userRepository, never()).existsById(anyLong());
+        verify(userRepository, never()).deleteById(anyLong());
     }
 
     @Test
@@ -270,15 +579,80 @@ class UserServiceTest {
     void deleteUser_NotFound_ThrowsException() {
         // Given
         Long userId = 999L;
-        when(userRepository.existsById(userId)).thenReturn(false);
+        when(userRepository.deleteUserById(userId)).thenReturn(0);
 
         // When & Then
         assertThatThrownBy(() -> userService.deleteUser(userId))
             .isInstanceOf(UserNotFoundException.class)
             .hasMessageContaining("999");
 
-        verify(userRepository).existsById(userId);
-        verify(userRepository, never()).deleteById(anyLong());
+        verify(userRepository).deleteUserById(userId);
     }
-}
 
+    @Test
+    @DisplayName("Should delete distinct ids with one statement and report the affected count")
+    void deleteUsers_Success() {
+        // Given
+        when(userRepository.deleteUsersByIds(anyCollection())).thenReturn(2);
+
+        // When
+        UserDeleteResultDTO result = userService.deleteUsers(Arrays.asList(1L, 2L, 2L, 999L));
+
+        // Then
+        assertThat(result.getRequested()).isEqualTo(3);
+        assertThat(result.getDeleted()).isEqualTo(2);
+
+        verify(userRepository).deleteUsersByIds(Set.of(1L, 2L, 999L));
+    }
+
+    @Test
+    @DisplayName("Should look up users in chunks and report missing IDs in request order")
+    void getUsersByIds_Chunked_ReportsMissing() {
+        // Given
+        userProperties.getBatch().setQueryChunkSize(2);
+        UserResponseDTO user1 = new UserResponseDTO(1L, "John Doe", "john.doe@example.com", "Software Developer");
+        UserResponseDTO user3 = new UserResponseDTO(3L, "Bob Johnson", "bob.johnson@example.com", "Designer");
+        when(userRepository.findResponsesByIds(List.of(3L, 999L))).thenReturn(List.of(user3));
+        when(userRepository.findResponsesByIds(List.of(1L))).thenReturn(List.of(user1));
+
+        // When
+        UserLookupResultDTO result = userService.getUsersByIds(Arrays.asList(3L, 999L, 3L, null, 1L));
+
+        // Then
+        assertThat(result.getUsers()).extracting(UserResponseDTO::getId).containsExactly(3L, 1L);
+        assertThat(result.getMissing()).containsExactly(999L);
+
+        verify(userRepository, times(2)).findResponsesByIds(anyCollection());
+    }
+
+    @Test
+    @DisplayName("Should reject lookups larger than the configured maximum")
+    void getUsersByIds_TooLarge_ThrowsException() {
+        // Given
+        userProperties.getBatch().setMaxSize(2);
+
+        // When & Then
+        assertThatThrownBy(() -> userService.getUsersByIds(List.of(1L, 2L, 3L)))
+            .isInstanceOf(BatchTooLargeException.class);
+
+        verify(userRepository, never()).findResponsesByIds(anyCollection());
+    }
+
+    @Test
+    @DisplayName("Should reject bulk delete larger than the configured maximum")
+    void deleteUsers_TooLarge_ThrowsException() {
+        // Given
+        userProperties.getBatch().setMaxSize(2);
+
+        // When & Then
+        assertThatThrownBy(() -> userService.deleteUsers(List.of(1L, 2L, 3L)))
+            .isInstanceOf(BatchTooLargeException.class);
+
+        verifyNoInteractions(userRepository);
+    }
+
+    private static DataIntegrityViolationException constraintViolation(String constraintName) {
+        return new DataIntegrityViolationException("could not execute statement",
+            new ConstraintViolationException("could not execute statement", new SQLException("violation"), constraintName));
+    }
+}